@@ -0,0 +1,82 @@
+package com.example.resumeservice.benchmark;
+
+import com.example.resumeservice.utils.StructuredResumeMerger;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson parsing of the AI replies the upload pipeline handles: the completion
+ * envelope, streamed deltas, match evaluations and structured resume JSON, the latter
+ * parsed per chunk and merged the way ResumeService stores it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class AIReplyParsingBenchmark {
+
+    // List entries per reply: small, typical and verbose model output
+    @Param({"5", "20", "80"})
+    private int items;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String completion;
+    private String delta;
+    private String matchEvaluation;
+    private String structuredResume;
+    private List<String> structuredChunkReplies;
+
+    @Setup
+    public void setUp() throws Exception {
+        matchEvaluation = BenchmarkFixtures.matchEvaluation(items, 42);
+        structuredResume = BenchmarkFixtures.structuredResume(items, 42);
+        // A resume long enough to be split into three structured-extraction prompts
+        structuredChunkReplies = List.of(structuredResume,
+                BenchmarkFixtures.structuredResume(items, 43),
+                BenchmarkFixtures.structuredResume(items, 44));
+        completion = BenchmarkFixtures.chatCompletion(structuredResume);
+        delta = BenchmarkFixtures.streamDelta("<li>designed scalable microservices</li>");
+    }
+
+    @Benchmark
+    public Map<?, ?> completionEnvelope() throws Exception {
+        return objectMapper.readValue(completion, Map.class);
+    }
+
+    @Benchmark
+    public String streamDelta() throws Exception {
+        JsonNode choices = objectMapper.readTree(delta).path("choices");
+        return choices.get(0).path("delta").path("content").asText("");
+    }
+
+    @Benchmark
+    public JsonNode matchEvaluation() throws Exception {
+        return objectMapper.readTree(matchEvaluation);
+    }
+
+    @Benchmark
+    public JsonNode structuredResume() throws Exception {
+        List<JsonNode> chunks = new ArrayList<>(structuredChunkReplies.size());
+        for (String reply : structuredChunkReplies) chunks.add(objectMapper.readTree(reply));
+        return StructuredResumeMerger.merge(chunks);
+    }
+}
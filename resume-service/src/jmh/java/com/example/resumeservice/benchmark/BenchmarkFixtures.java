@@ -0,0 +1,213 @@
+package com.example.resumeservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic resume-like fixtures so every benchmark run sees the same input.
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] SECTIONS = {"EXPERIENCE", "EDUCATION", "SKILLS", "PROJECTS", "CERTIFICATIONS"};
+    private static final String[] WORDS = {
+            "designed", "implemented", "scalable", "microservices", "Java", "Spring", "Kubernetes", "reduced",
+            "latency", "by", "40%", "team", "of", "engineers", "delivered", "features", "for", "customers",
+            "PostgreSQL", "Elasticsearch", "pipelines", "migrated", "legacy", "systems", "to", "the", "cloud",
+            "mentored", "junior", "developers", "and", "owned", "on-call", "rotation", "Zürich", "München"
+    };
+
+    // Roughly what fits on one A4 page at 9pt
+    private static final int LINES_PER_PAGE = 64;
+    private static final int CHARS_PER_LINE = 100;
+    static final int CHARS_PER_PAGE = LINES_PER_PAGE * CHARS_PER_LINE;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Multi-line text as it comes out of the extractor: a blank line before every section,
+     * one bullet per line, sentences ending in periods.
+     */
+    static String resumeText(int targetChars, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(targetChars + 256);
+        int section = 0;
+        while (text.length() < targetChars) {
+            text.append(SECTIONS[section++ % SECTIONS.length]).append('\n');
+            int bullets = 4 + random.nextInt(6);
+            for (int b = 0; b < bullets; b++) {
+                text.append("• ");
+                int sentences = 1 + random.nextInt(3);
+                for (int s = 0; s < sentences; s++) {
+                    int words = 6 + random.nextInt(14);
+                    for (int w = 0; w < words; w++) {
+                        if (w > 0) text.append(' ');
+                        text.append(WORDS[random.nextInt(WORDS.length)]);
+                    }
+                    text.append(". ");
+                }
+                text.append('\n');
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * The same text after whitespace collapsing, i.e. what the AI prompts actually get.
+     */
+    static String cleanedResumeText(int targetChars, long seed) {
+        return resumeText(targetChars, seed).replaceAll("\\s+", " ").trim();
+    }
+
+    // =========================
+    // Documents
+    // =========================
+    static byte[] pdf(int pages, long seed) throws IOException {
+        List<String> lines = wrappedLines(pages, seed);
+        try (PDDocument doc = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int page = 0; page < pages; page++) {
+                PDPage pdPage = new PDPage(PDRectangle.A4);
+                doc.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(doc, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 9);
+                    content.setLeading(12);
+                    content.newLineAtOffset(36, 806);
+                    int from = page * LINES_PER_PAGE;
+                    for (String line : lines.subList(from, Math.min(from + LINES_PER_PAGE, lines.size()))) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    static byte[] docx(int pages, long seed) throws IOException {
+        try (XWPFDocument doc = new XWPFDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (String line : resumeText(pages * CHARS_PER_PAGE, seed).split("\n")) {
+                doc.createParagraph().createRun().setText(line);
+            }
+            doc.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * XHTML shaped like the optimize step's output: one heading and bullet list per section.
+     */
+    static String optimizedHtml(int pages, long seed) {
+        StringBuilder html = new StringBuilder("<html><head><meta charset='UTF-8'/><style>"
+                + "body{font-family:sans-serif;font-size:10pt} h2{border-bottom:1px solid #333}</style></head><body>");
+        for (String block : resumeText(pages * CHARS_PER_PAGE, seed).split("\n\n")) {
+            String[] lines = block.split("\n");
+            html.append("<h2>").append(lines[0]).append("</h2><ul>");
+            for (int i = 1; i < lines.length; i++) {
+                html.append("<li>").append(lines[i].replace("• ", "")).append("</li>");
+            }
+            html.append("</ul>");
+        }
+        return html.append("</body></html>").toString();
+    }
+
+    private static List<String> wrappedLines(int pages, long seed) {
+        List<String> lines = new ArrayList<>();
+        for (String line : resumeText(pages * CHARS_PER_PAGE, seed).split("\n")) {
+            while (line.length() > CHARS_PER_LINE) {
+                int cut = line.lastIndexOf(' ', CHARS_PER_LINE);
+                if (cut <= 0) cut = CHARS_PER_LINE;
+                lines.add(line.substring(0, cut));
+                line = line.substring(cut).trim();
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    // =========================
+    // AI replies
+    // =========================
+    /**
+     * Non-streaming chat completion envelope whose message content is {@code content}.
+     */
+    static String chatCompletion(String content) throws IOException {
+        Map<String, Object> message = Map.of("role", "assistant", "content", content);
+        Map<String, Object> reply = new LinkedHashMap<>();
+        reply.put("id", "chatcmpl-bench");
+        reply.put("object", "chat.completion");
+        reply.put("created", 1_700_000_000);
+        reply.put("model", "gpt-4o");
+        reply.put("choices", List.of(Map.of("index", 0, "message", message, "finish_reason", "stop")));
+        reply.put("usage", Map.of("prompt_tokens", 1200, "completion_tokens", 800, "total_tokens", 2000));
+        return MAPPER.writeValueAsString(reply);
+    }
+
+    static String streamDelta(String content) throws IOException {
+        return MAPPER.writeValueAsString(Map.of(
+                "id", "chatcmpl-bench",
+                "object", "chat.completion.chunk",
+                "choices", List.of(Map.of("index", 0, "delta", Map.of("content", content)))));
+    }
+
+    static String matchEvaluation(int items, long seed) throws IOException {
+        Random random = new Random(seed);
+        Map<String, Object> evaluation = new LinkedHashMap<>();
+        evaluation.put("match_score", random.nextInt(101));
+        evaluation.put("strengths", phrases(random, items));
+        evaluation.put("weaknesses", phrases(random, items));
+        evaluation.put("recommendations", phrases(random, items));
+        return MAPPER.writeValueAsString(evaluation);
+    }
+
+    static String structuredResume(int items, long seed) throws IOException {
+        Random random = new Random(seed);
+        Map<String, Object> resume = new LinkedHashMap<>();
+        resume.put("name", "Jane Doe");
+        resume.put("email", "jane.doe@example.com");
+        resume.put("phone", "+41 44 000 00 00");
+        resume.put("skills", phrases(random, items));
+        resume.put("education", phrases(random, Math.max(1, items / 4)));
+        List<Map<String, Object>> experience = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            experience.add(Map.of("title", phrase(random), "company", phrase(random), "highlights", phrases(random, 4)));
+        }
+        resume.put("work_experience", experience);
+        resume.put("projects", phrases(random, items));
+        return MAPPER.writeValueAsString(resume);
+    }
+
+    private static List<String> phrases(Random random, int count) {
+        List<String> phrases = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) phrases.add(phrase(random));
+        return phrases;
+    }
+
+    private static String phrase(Random random) {
+        StringBuilder phrase = new StringBuilder();
+        int words = 3 + random.nextInt(10);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) phrase.append(' ');
+            phrase.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return phrase.toString();
+    }
+}
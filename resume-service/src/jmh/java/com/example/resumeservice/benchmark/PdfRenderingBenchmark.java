@@ -0,0 +1,57 @@
+package com.example.resumeservice.benchmark;
+
+import com.example.resumeservice.service.PdfRenderingService;
+import com.example.resumeservice.utils.PdfOutputBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optimized XHTML to PDF through {@link PdfRenderingService} (htmlToPdf in the upload pipeline).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(2)
+public class PdfRenderingBenchmark {
+
+    @Param({"1", "3", "10"})
+    private int pages;
+
+    private String html;
+    private PdfRenderingService renderer;
+
+    @Setup
+    public void setUp() throws Exception {
+        html = BenchmarkFixtures.optimizedHtml(pages, 42);
+
+        renderer = new PdfRenderingService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(renderer, "poolSize", 1);
+        ReflectionTestUtils.setField(renderer, "acquireTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(renderer, "fontsDir", "");
+        ReflectionTestUtils.invokeMethod(renderer, "init");
+        renderer.warmUp();
+    }
+
+    @Benchmark
+    public PdfOutputBuffer htmlToPdf() throws Exception {
+        PdfOutputBuffer pdf = new PdfOutputBuffer(64 * 1024);
+        renderer.render(html, pdf);
+        return pdf;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.resumeservice.benchmark;
+
+import com.example.resumeservice.utils.TextChunker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@link TextChunker} against the two splitters it replaced. Run with {@code -prof gc}
+ * (the profile default) to compare {@code gc.alloc.rate.norm} as well as time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TextChunkerBenchmark {
+
+    @Param({"51200", "204800", "512000"})
+    private int sizeChars;
+
+    private String cleaned;
+    private TextChunker structuredChunker;
+    private TextChunker optimizeChunker;
+
+    @Setup
+    public void setUp() {
+        cleaned = BenchmarkFixtures.cleanedResumeText(sizeChars, 42);
+        structuredChunker = new TextChunker(1750, 0);
+        optimizeChunker = new TextChunker(750, 0);
+    }
+
+    @Benchmark
+    public List<String> legacyResumeServiceSplit() {
+        return legacyCodePointSplit(cleaned, 7000);
+    }
+
+    @Benchmark
+    public List<String> chunkerStructured() {
+        return structuredChunker.split(cleaned);
+    }
+
+    @Benchmark
+    public List<String> legacyResumeAIServiceSplit() {
+        return legacySpaceSplit(cleaned, 3000);
+    }
+
+    @Benchmark
+    public List<String> chunkerOptimize() {
+        return optimizeChunker.split(cleaned);
+    }
+
+    // =========================
+    // Previous implementations, kept verbatim as baselines
+    // =========================
+    private static List<String> legacyCodePointSplit(String text, int chunkSize) {
+        return text.codePoints()
+                .mapToObj(c -> String.valueOf((char) c))
+                .collect(Collectors.joining())
+                .lines()
+                .collect(Collectors.groupingBy(line -> line.length() / chunkSize))
+                .values()
+                .stream()
+                .map(lines -> String.join(" ", lines))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> legacySpaceSplit(String text, int chunkSize) {
+        List<String> chunks = new ArrayList<>();
+        if (text == null || text.isBlank()) return chunks;
+
+        int start = 0;
+        int length = text.length();
+
+        while (start < length) {
+            int end = Math.min(start + chunkSize, length);
+
+            if (end < length) {
+                int lastSpace = text.lastIndexOf(' ', end);
+                if (lastSpace > start) {
+                    end = lastSpace;
+                }
+            }
+
+            String chunk = text.substring(start, end).trim();
+            if (!chunk.isEmpty()) {
+                chunks.add(chunk);
+            }
+
+            start = end;
+        }
+
+        return chunks;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.resumeservice.benchmark;
+
+import com.example.resumeservice.entity.enumerations.FileType;
+import com.example.resumeservice.service.DocumentTextExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DocumentTextExtractor#extract} for generated PDF and DOCX resumes. The 20-page
+ * fixtures cross {@code extraction.parallel.min-pages} and take the page-parallel path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TextExtractionBenchmark {
+
+    @Param({"PDF", "DOCX"})
+    private FileType fileType;
+
+    @Param({"1", "5", "20"})
+    private int pages;
+
+    private byte[] content;
+    private DocumentTextExtractor extractor;
+
+    @Setup
+    public void setUp() throws Exception {
+        content = fileType == FileType.PDF ? BenchmarkFixtures.pdf(pages, 42) : BenchmarkFixtures.docx(pages, 42);
+
+        // Same defaults as application.properties, without starting a Spring context
+        extractor = new DocumentTextExtractor();
+        ReflectionTestUtils.setField(extractor, "maxPages", 50);
+        ReflectionTestUtils.setField(extractor, "maxChars", 200_000);
+        ReflectionTestUtils.setField(extractor, "maxMainMemoryBytes", 16L * 1024 * 1024);
+        ReflectionTestUtils.setField(extractor, "parallelMinPages", 8);
+        ReflectionTestUtils.setField(extractor, "threads", Runtime.getRuntime().availableProcessors());
+        ReflectionTestUtils.invokeMethod(extractor, "init");
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(extractor, "shutdown");
+    }
+
+    @Benchmark
+    public String extractText() throws Exception {
+        return extractor.extract(content, fileType);
+    }
+}
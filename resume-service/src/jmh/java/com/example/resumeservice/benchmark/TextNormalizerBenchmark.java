@@ -0,0 +1,51 @@
+package com.example.resumeservice.benchmark;
+
+import com.example.resumeservice.utils.TextNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TextNormalizer} against the two-regex {@code cleanText} it replaced, on raw
+ * extractor-style text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TextNormalizerBenchmark {
+
+    @Param({"51200", "204800", "512000"})
+    private int sizeChars;
+
+    private String raw;
+
+    @Setup
+    public void setUp() {
+        raw = BenchmarkFixtures.resumeText(sizeChars, 42);
+    }
+
+    @Benchmark
+    public String legacyCleanText() {
+        return raw.replaceAll("\\s+", " ")
+                .replaceAll("[^\\x20-\\x7E\\p{L}\\p{N}\\p{Punct}\\s]", "")
+                .trim();
+    }
+
+    @Benchmark
+    public String normalizer() {
+        return TextNormalizer.normalize(raw);
+    }
+}
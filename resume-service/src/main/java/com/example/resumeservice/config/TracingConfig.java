@@ -0,0 +1,46 @@
+package com.example.resumeservice.config;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Tracing is auto-configured by the OpenTelemetry bridge and exported over OTLP to
+ * {@code management.otlp.tracing.endpoint}. With {@code tracing.file-export.enabled=true}
+ * finished spans are also appended as OTLP JSON lines to {@code tracing.file-export.path},
+ * so the upload pipeline can be analysed offline when no collector is running.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.file-export.enabled", havingValue = "true")
+    public SpanExporter fileSpanExporter(@Value("${tracing.file-export.path}") String path) throws IOException {
+        Path file = Path.of(path);
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+
+        // The exporter writes one JSON line per batch to its JUL logger; send that logger to the file only
+        FileHandler handler = new FileHandler(file.toString(), true);
+        handler.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord record) {
+                return record.getMessage() + System.lineSeparator();
+            }
+        });
+        Logger logger = Logger.getLogger(OtlpJsonLoggingSpanExporter.class.getName());
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
@@ -8,17 +8,19 @@ import org.springframework.web.reactive.function.client.WebClient;
 @Configuration
 public class WebClientConfig {
 
+    // The auto-configured builder carries the ObservationRegistry, so every call gets a client
+    // span and propagates the trace context; it is prototype-scoped, one instance per bean
     @Bean
-    public WebClient userServiceWebClient(@Value("${userservice.url}") String userServiceUrl) {
-        return WebClient.builder()
+    public WebClient userServiceWebClient(WebClient.Builder builder, @Value("${userservice.url}") String userServiceUrl) {
+        return builder
                 .baseUrl(userServiceUrl)
                 .build();
     }
 
     @Bean
-    public WebClient analyticsWebClient(@Value("${analytics.service.url}") String baseUrl) {
-        return WebClient.builder()
+    public WebClient analyticsWebClient(WebClient.Builder builder, @Value("${analytics.service.url}") String baseUrl) {
+        return builder
                 .baseUrl(baseUrl)
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,18 @@
 package com.example.resumeservice.controller;
 
 import com.example.resumeservice.entity.Resume;
-import com.example.resumeservice.entity.ResumeDocument;
+import com.example.resumeservice.entity.dto.AIUsageSummaryDTO;
 import com.example.resumeservice.entity.dto.ResumeResponseDTO;
+import com.example.resumeservice.entity.dto.UploadJobDTO;
+import com.example.resumeservice.entity.enumerations.AIStatus;
+import com.example.resumeservice.service.AIBudgetExceededException;
+import com.example.resumeservice.service.AIUnavailableException;
+import com.example.resumeservice.service.InvalidTokenException;
+import com.example.resumeservice.service.PipelineOverloadedException;
 import com.example.resumeservice.service.ResumeService;
+import com.example.resumeservice.service.UnsupportedFileTypeException;
+import com.example.resumeservice.service.UploadJobService;
+import com.example.resumeservice.service.UploadQueueFullException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
@@ -12,8 +21,10 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -22,22 +33,83 @@ import java.util.Map;
 public class ResumeController {
 
     private final ResumeService resumeService;
+    private final UploadJobService uploadJobService;
 
     @Autowired
-    public ResumeController(ResumeService resumeService) {
+    public ResumeController(ResumeService resumeService, UploadJobService uploadJobService) {
         this.resumeService = resumeService;
+        this.uploadJobService = uploadJobService;
     }
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResumeResponseDTO uploadResume(
+    public ResponseEntity<?> uploadResume(
             @RequestPart("file") MultipartFile file,
             @RequestPart(value = "jobDescription", required = false) String jobDescription,
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
             @RequestHeader("Authorization") String authorizationHeader // <-- JWT here
     ) throws Exception {
         // Extract token from header
         String token = authorizationHeader.replace("Bearer ", "").trim();
 
-        return resumeService.uploadResume(file, jobDescription, token);
+        if (!async) {
+            try {
+                ResumeResponseDTO resume = resumeService.uploadResume(file, jobDescription, token);
+                // Stored while Azure OpenAI was unavailable: evaluation and optimized PDF follow later
+                return AIStatus.PENDING.name().equals(resume.getAiStatus())
+                        ? ResponseEntity.accepted().body(resume)
+                        : ResponseEntity.ok(resume);
+            } catch (AIBudgetExceededException e) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+            } catch (UnsupportedFileTypeException e) {
+                return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(Map.of("error", e.getMessage()));
+            } catch (PipelineOverloadedException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+            }
+        }
+
+        // Async mode: hand the pipeline to a background job and answer immediately
+        try {
+            UploadJobDTO job = uploadJobService.submit(file, jobDescription, token);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/resumes/upload/jobs/" + job.getJobId()))
+                    .body(job);
+        } catch (InvalidTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", e.getMessage()));
+        } catch (UploadQueueFullException e) {
+            // Only executor rejection is overload; anything wrong with the file is the client's
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (UnsupportedFileTypeException e) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/upload/jobs/{jobId}")
+    public ResponseEntity<UploadJobDTO> getUploadJob(@PathVariable String jobId,
+                                                     @RequestHeader("Authorization") String authHeader) {
+        Long userId;
+        try {
+            userId = resumeService.authenticate(authHeader.replace("Bearer ", "").trim());
+        } catch (InvalidTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return uploadJobService.getJob(jobId, userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/upload/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamUploadJob(@PathVariable String jobId,
+                                                      @RequestHeader("Authorization") String authHeader) {
+        Long userId;
+        try {
+            userId = resumeService.authenticate(authHeader.replace("Bearer ", "").trim());
+        } catch (InvalidTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (uploadJobService.getJob(jobId, userId).isEmpty()) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(uploadJobService.subscribe(jobId, userId));
     }
 
 
@@ -51,11 +123,11 @@ public class ResumeController {
     @GetMapping("/{id}/download")
     public ResponseEntity<?> downloadResume(@PathVariable Long id) {
         try {
-            String presignedUrl = resumeService.generatePresignedDownloadLink(id);
+            Resume resume = resumeService.getResumeById(id);
             // Return the URL in a structured JSON for now
             return ResponseEntity.ok(Map.of(
-                    "downloadUrl", presignedUrl,
-                    "filename", resumeService.getResumeById(id).getFilename()
+                    "downloadUrl", resumeService.generatePresignedDownloadLink(resume),
+                    "filename", resume.getFilename()
             ));
         } catch (RuntimeException e) {
             return ResponseEntity.status(404).body(e.getMessage());
@@ -73,23 +145,22 @@ public class ResumeController {
     }
 
     @GetMapping("/search")
-    public List<ResumeDocument> search(@RequestParam String q) {
-        return resumeService.searchResumes(q);
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(resumeService.searchResumes(q, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
 
     @GetMapping("/user")
     public List<ResumeResponseDTO> getUserResumes(@RequestHeader("Authorization") String authHeader) {
         String token = authHeader.replace("Bearer ", "");
-        List<ResumeResponseDTO> resumes = resumeService.getUserResumes(token);
-
-        // Generate presigned URLs for download
-        for (ResumeResponseDTO resume : resumes) {
-            String presignedUrl = resumeService.generatePresignedDownloadLink(resume.getId());
-            resume.setUrl(presignedUrl);
-        }
-
-        return resumes;
+        // URLs are already presigned by the service
+        return resumeService.getUserResumes(token);
     }
 
 
@@ -97,14 +168,33 @@ public class ResumeController {
     public ResponseEntity<String> compareResumes(
             @RequestParam("file1") MultipartFile file1,
             @RequestParam("file2") MultipartFile file2,
-            @RequestParam(value = "jobDescription", required = false) String jobDescription) {
+            @RequestParam(value = "jobDescription", required = false) String jobDescription,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
         try {
-            String resultJson = resumeService.compareResumes(file1, file2, jobDescription);
+            String token = authHeader != null ? authHeader.replace("Bearer ", "").trim() : null;
+            String resultJson = resumeService.compareResumes(file1, file2, jobDescription, token);
             return ResponseEntity.ok(resultJson);
+        } catch (AIBudgetExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body("{\"error\": \"" + e.getMessage() + "\"}");
+        } catch (AIUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("{\"error\": \"" + e.getMessage() + "\"}");
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("{\"error\": \"" + e.getMessage() + "\"}");
         }
     }
-}
\ No newline at end of file
+
+    // Today's token usage and budget, for the whole service and per user
+    @GetMapping("/ai-usage")
+    public AIUsageSummaryDTO getAIUsage() {
+        return resumeService.getAIUsage();
+    }
+
+    @GetMapping("/ai-usage/me")
+    public AIUsageSummaryDTO getUserAIUsage(@RequestHeader("Authorization") String authHeader) {
+        return resumeService.getUserAIUsage(authHeader.replace("Bearer ", "").trim());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.resumeservice.entity;
 
+import com.example.resumeservice.entity.enumerations.AIStatus;
 import com.example.resumeservice.entity.enumerations.FileType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -10,7 +11,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "resumes")
+@Table(name = "resumes", indexes = @Index(name = "idx_resumes_user_fingerprint", columnList = "user_id, fingerprint"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,4 +44,17 @@ public class Resume {
     @Column(columnDefinition = "TEXT")
     private String jobDescription;
 
+    @Column(length = 64)
+    private String fingerprint; // SHA-256 of the uploaded bytes
+
+    @Column(columnDefinition = "TEXT")
+    private String matchEvaluation; // raw AI match JSON, reused for duplicate uploads
+
+    @Enumerated(EnumType.STRING)
+    private AIStatus aiStatus; // null on rows from before degraded uploads existed, which are all DONE
+
+    private Integer aiAttempts; // reprocessing attempts while PENDING
+
+    private LocalDateTime aiClaimedUntil; // reprocessing lease; the row is claimable again once it passes
+
 }
@@ -0,0 +1,18 @@
+package com.example.resumeservice.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AIOperationUsageDTO {
+    private long calls;
+    private long promptTokens;
+    private long completionTokens;
+    private long totalTokens;
+    private double averageLatencyMs;
+}
@@ -0,0 +1,22 @@
+package com.example.resumeservice.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AIUsageSummaryDTO {
+    private LocalDate day;          // UTC day the totals and budget apply to
+    private Long userId;            // null for the instance-wide summary
+    private Long tokenBudget;       // null when unlimited
+    private long usedTokens;        // includes tokens reserved by calls still in flight
+    private Long remainingTokens;   // null when unlimited
+    private Map<String, AIOperationUsageDTO> operations;
+}
@@ -22,6 +22,7 @@ public class ResumeResponseDTO {
     private String content;
     private Map<String, Object> matchEvaluation; //
     private String jobDescription;
+    private String aiStatus; // PENDING while evaluation and optimization wait for Azure OpenAI
 
 
 
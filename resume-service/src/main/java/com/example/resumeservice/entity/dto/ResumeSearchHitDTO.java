@@ -0,0 +1,22 @@
+package com.example.resumeservice.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumeSearchHitDTO {
+    private String id;
+    private String filename;
+    private String fileType;
+    private String url;
+    private long uploadedAt;
+    private float score;
+    private List<String> highlights; // matching snippets of the content, terms wrapped in <em>
+}
@@ -0,0 +1,21 @@
+package com.example.resumeservice.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumeSearchResultDTO {
+    private String query;
+    private int page;
+    private int size;
+    private long totalHits;
+    private boolean totalHitsExact; // false when ES stopped counting at its track_total_hits limit
+    private List<ResumeSearchHitDTO> hits;
+}
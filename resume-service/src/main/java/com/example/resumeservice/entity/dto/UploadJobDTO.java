@@ -0,0 +1,23 @@
+package com.example.resumeservice.entity.dto;
+
+import com.example.resumeservice.entity.enumerations.UploadStage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadJobDTO {
+    private String jobId;
+    private String filename;
+    private UploadStage stage;
+    private String error;              // set when stage == FAILED
+    private ResumeResponseDTO result;  // set when stage == COMPLETED
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
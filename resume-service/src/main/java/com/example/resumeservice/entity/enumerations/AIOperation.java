@@ -0,0 +1,9 @@
+package com.example.resumeservice.entity.enumerations;
+
+public enum AIOperation {
+    EVALUATE,
+    OPTIMIZE,
+    EXPAND,
+    EXTRACT,
+    COMPARE
+}
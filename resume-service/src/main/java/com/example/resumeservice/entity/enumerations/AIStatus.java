@@ -0,0 +1,7 @@
+package com.example.resumeservice.entity.enumerations;
+
+public enum AIStatus {
+    DONE,
+    PENDING,
+    FAILED
+}
@@ -0,0 +1,13 @@
+package com.example.resumeservice.entity.enumerations;
+
+public enum UploadStage {
+    QUEUED,
+    EXTRACT,
+    EVALUATE,
+    OPTIMIZE,
+    RENDER,
+    PERSIST,
+    INDEX,
+    COMPLETED,
+    FAILED
+}
@@ -3,10 +3,12 @@ package com.example.resumeservice.entity.mapper;
 import com.example.resumeservice.entity.Resume;
 import com.example.resumeservice.entity.dto.ResumeResponseDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 
 @Mapper(componentModel = "spring")
 public interface ResumeMapper {
 
+    @Mapping(target = "matchEvaluation", ignore = true) // stored as raw JSON, parsed by ResumeService
     ResumeResponseDTO toDTO(Resume resume);
 }
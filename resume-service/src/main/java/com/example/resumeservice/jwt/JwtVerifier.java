@@ -0,0 +1,196 @@
+package com.example.resumeservice.jwt;
+
+import com.example.resumeservice.utils.BoundedTtlCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves the user id behind a bearer token issued by user-service.
+ * <p>
+ * Tokens are verified locally with the key named by their {@code kid} header: RSA public
+ * keys from user-service's JWKS endpoint ({@code jwt.jwks-uri}), refreshed periodically and
+ * whenever an unknown kid shows up, or the shared HMAC {@code jwt.secret} plus any
+ * {@code jwt.previous-secrets} still valid during a rotation. The id is read from the
+ * {@code uid} claim. Tokens without the claim (issued before it existed), or any token when
+ * no key source is configured, go to the caller's remote lookup instead. Either way the
+ * result is cached per token for {@code jwt.principal-cache.ttl}, never beyond the token's
+ * own expiry, in an LRU of at most {@code jwt.principal-cache.max-entries} tokens.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtVerifier {
+
+    private final WebClient.Builder webClientBuilder;
+
+    private static final String USER_ID_CLAIM = "uid";
+
+    @Value("${jwt.secret:}")
+    private String secret;
+
+    @Value("${jwt.previous-secrets:}")
+    private String[] previousSecrets;
+
+    @Value("${jwt.jwks-uri:}")
+    private String jwksUri;
+
+    @Value("${jwt.jwks.refresh-interval:PT10M}")
+    private Duration jwksRefreshInterval;
+
+    // Floor between two fetches triggered by unknown kids, so garbage tokens cannot hammer user-service
+    @Value("${jwt.jwks.min-refresh-interval:PT30S}")
+    private Duration jwksMinRefreshInterval;
+
+    @Value("${jwt.principal-cache.ttl:PT1M}")
+    private Duration cacheTtl;
+
+    @Value("${jwt.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private JwtParser parser;
+
+    private Key hmacKey;
+    private final Map<String, Key> previousHmacKeys = new HashMap<>();
+
+    private WebClient jwksClient;
+    private volatile Map<String, Key> jwksKeys = Map.of();
+    private volatile long jwksFetchedAtNanos;
+    private volatile boolean jwksFetched;
+    private final Object jwksLock = new Object();
+
+    private BoundedTtlCache<String, Long> principals;
+
+    @PostConstruct
+    private void init() {
+        principals = new BoundedTtlCache<>(maxEntries, cacheTtl);
+
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length >= 32) hmacKey = Keys.hmacShaKeyFor(secretBytes);
+        for (String previous : previousSecrets) {
+            int separator = previous.indexOf(':');
+            if (separator <= 0) continue;
+            byte[] previousBytes = previous.substring(separator + 1).trim().getBytes(StandardCharsets.UTF_8);
+            previousHmacKeys.put(previous.substring(0, separator).trim(), Keys.hmacShaKeyFor(previousBytes));
+        }
+        if (!jwksUri.isBlank()) jwksClient = webClientBuilder.build();
+
+        if (hmacKey == null && jwksClient == null) {
+            System.err.println("⚠️ Neither jwt.secret nor jwt.jwks-uri configured, user ids are resolved through user-service");
+            return;
+        }
+
+        // JwtParser is immutable and thread-safe, so one instance serves every request
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    public Long resolveUserId(String token, Function<String, Long> remoteLookup) {
+        Long cached = principals.get(token);
+        if (cached != null) return cached;
+
+        long now = System.currentTimeMillis();
+        long expiresAt = now + cacheTtl.toMillis();
+        Long userId = null;
+        if (parser != null) {
+            Claims claims;
+            try {
+                claims = parser.parseClaimsJws(token).getBody();
+            } catch (JwtException | IllegalArgumentException e) {
+                throw new RuntimeException("Invalid token", e);
+            }
+            if (claims.getExpiration() != null) expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+            Object uid = claims.get(USER_ID_CLAIM);
+            if (uid instanceof Number number) userId = number.longValue();
+        }
+        if (userId == null) userId = remoteLookup.apply(token);
+
+        principals.put(token, userId, Duration.ofMillis(expiresAt - now));
+        return userId;
+    }
+
+    // =========================
+    // Key lookup
+    // =========================
+    private Key verificationKey(String kid) {
+        if (kid != null) {
+            if (jwksClient != null) {
+                Key key = jwksKey(kid);
+                if (key != null) return key;
+            }
+            Key previous = previousHmacKeys.get(kid);
+            if (previous != null) return previous;
+        }
+        if (hmacKey != null) return hmacKey;
+        throw new SignatureException("No verification key for kid " + kid);
+    }
+
+    private Key jwksKey(String kid) {
+        long age = System.nanoTime() - jwksFetchedAtNanos;
+        Key key = jwksKeys.get(kid);
+        if (key != null && age < jwksRefreshInterval.toNanos()) return key;
+        if (key == null && jwksFetched && age < jwksMinRefreshInterval.toNanos()) return null;
+
+        synchronized (jwksLock) {
+            // Another thread may have refreshed while this one waited
+            if (!jwksFetched || System.nanoTime() - jwksFetchedAtNanos >= jwksMinRefreshInterval.toNanos()) {
+                refreshJwks();
+            }
+        }
+        return jwksKeys.get(kid);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void refreshJwks() {
+        try {
+            Map<String, Object> jwks = jwksClient.get()
+                    .uri(jwksUri)
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .block(Duration.ofSeconds(5));
+
+            Map<String, Key> keys = new HashMap<>();
+            for (Map<String, Object> jwk : (List<Map<String, Object>>) jwks.getOrDefault("keys", List.of())) {
+                if (!"RSA".equals(jwk.get("kty")) || jwk.get("kid") == null) continue;
+                RSAPublicKeySpec spec = new RSAPublicKeySpec(
+                        new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("n"))),
+                        new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("e"))));
+                keys.put((String) jwk.get("kid"), KeyFactory.getInstance("RSA").generatePublic(spec));
+            }
+            jwksKeys = keys;
+        } catch (Exception e) {
+            // Keep serving the keys we already have
+            System.err.println("⚠️ Failed to fetch JWKS from " + jwksUri + ": " + e.getMessage());
+        } finally {
+            jwksFetchedAtNanos = System.nanoTime();
+            jwksFetched = true;
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.example.resumeservice.minio;
 
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import io.minio.MinioClient;
 import io.minio.errors.MinioException;
+import io.minio.http.HttpUtils;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class MinioConfig {
 
@@ -19,11 +28,43 @@ public class MinioConfig {
     @Value("${minio.secret-key}")
     private String secretKey;
 
+    // Empty: the client looks up (and caches) the bucket location. Set it only to the bucket's
+    // actual region; URLs are then signed locally, and a wrong value gives invalid signatures.
+    @Value("${minio.region:}")
+    private String region;
+
     @Bean
-    public MinioClient minioClient() {
-        return MinioClient.builder()
+    public MinioClient minioClient(ObservationRegistry observationRegistry) {
+        // Same timeouts as the client's own default, plus one observation (span) per HTTP call
+        long timeout = TimeUnit.MINUTES.toMillis(5);
+        MinioClient.Builder builder = MinioClient.builder()
                 .endpoint(url)
                 .credentials(accessKey, secretKey)
-                .build();
+                .httpClient(HttpUtils.newDefaultHttpClient(timeout, timeout, timeout).newBuilder()
+                        .addInterceptor(observationInterceptor(observationRegistry))
+                        .build());
+        if (!region.isBlank()) builder.region(region);
+        return builder.build();
+    }
+
+    private static Interceptor observationInterceptor(ObservationRegistry observationRegistry) {
+        return chain -> {
+            Request request = chain.request();
+            Observation observation = Observation.createNotStarted("minio.request", observationRegistry)
+                    .contextualName("minio " + request.method())
+                    .lowCardinalityKeyValue("http.method", request.method())
+                    .highCardinalityKeyValue("url.path", request.url().encodedPath())
+                    .start();
+            try (Observation.Scope scope = observation.openScope()) {
+                Response response = chain.proceed(request);
+                observation.lowCardinalityKeyValue("http.status_code", String.valueOf(response.code()));
+                return response;
+            } catch (IOException | RuntimeException e) {
+                observation.error(e);
+                throw e;
+            } finally {
+                observation.stop();
+            }
+        };
     }
 }
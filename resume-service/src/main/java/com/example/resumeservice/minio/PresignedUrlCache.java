@@ -0,0 +1,86 @@
+package com.example.resumeservice.minio;
+
+import com.example.resumeservice.utils.BoundedTtlCache;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.http.Method;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Presigned GET URLs per object name. A URL is reused until {@code minio.presign.refresh-margin}
+ * before it expires, so a client always gets at least that much validity. Signing is local;
+ * only when {@code minio.region} is unset does the client look up the bucket location, once.
+ * At most {@code minio.presign.max-entries} URLs are kept, least recently used evicted first.
+ */
+@Component
+@RequiredArgsConstructor
+public class PresignedUrlCache {
+
+    private final MinioClient minioClient;
+
+    @Value("${minio.bucket}")
+    private String bucket;
+
+    @Value("${minio.presign.expiry:PT10M}")
+    private Duration expiry;
+
+    @Value("${minio.presign.refresh-margin:PT2M}")
+    private Duration refreshMargin;
+
+    @Value("${minio.presign.max-entries:10000}")
+    private int maxEntries;
+
+    private BoundedTtlCache<String, String> urls;
+
+    @PostConstruct
+    private void init() {
+        urls = new BoundedTtlCache<>(maxEntries, expiry.minus(refreshMargin));
+    }
+
+    public String downloadUrl(String objectName) {
+        String cached = urls.get(objectName);
+        if (cached != null) return cached;
+
+        String signed = sign(objectName);
+        urls.put(objectName, signed);
+        return signed;
+    }
+
+    /**
+     * URLs for many objects at once, in the iteration order of {@code objectNames}.
+     */
+    public Map<String, String> downloadUrls(Collection<String> objectNames) {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String objectName : objectNames) {
+            result.computeIfAbsent(objectName, this::downloadUrl);
+        }
+        return result;
+    }
+
+    public void evict(String objectName) {
+        urls.remove(objectName);
+    }
+
+    private String sign(String objectName) {
+        try {
+            return minioClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(Method.GET)
+                            .bucket(bucket)
+                            .object(objectName)
+                            .expiry((int) expiry.toSeconds())
+                            .build()
+            );
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to generate download link: " + e.getMessage(), e);
+        }
+    }
+}
@@ -2,11 +2,29 @@ package com.example.resumeservice.repo;
 
 
 import com.example.resumeservice.entity.Resume;
+import com.example.resumeservice.entity.enumerations.AIStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.beans.PropertyValues;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ResumeRepository extends JpaRepository<Resume, Long> {
      List<Resume> findAllByUserIdOrderByUploadedAtDesc(Long userId);
+
+     List<Resume> findAllByUserIdAndFingerprintOrderByUploadedAtDesc(Long userId, String fingerprint);
+
+     // Lock timeout -2 is SKIP LOCKED: several instances can claim batches without blocking each other
+     @Lock(LockModeType.PESSIMISTIC_WRITE)
+     @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+     @Query("select r from Resume r where r.aiStatus = :aiStatus"
+             + " and (r.aiClaimedUntil is null or r.aiClaimedUntil <= :now) order by r.uploadedAt asc")
+     List<Resume> findClaimable(@Param("aiStatus") AIStatus aiStatus, @Param("now") LocalDateTime now, Pageable pageable);
 }
\ No newline at end of file
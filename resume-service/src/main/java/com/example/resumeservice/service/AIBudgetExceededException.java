@@ -0,0 +1,11 @@
+package com.example.resumeservice.service;
+
+/**
+ * Thrown before an Azure OpenAI call that would take a user, or the whole instance,
+ * past its daily token budget.
+ */
+public class AIBudgetExceededException extends RuntimeException {
+    public AIBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.resumeservice.service;
+
+import com.example.resumeservice.entity.enumerations.AIOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the concurrent Azure OpenAI calls per {@link AIOperation}, so a slow operation
+ * (e.g. long OPTIMIZE streams) cannot hold every thread that EVALUATE or EXTRACT need.
+ * Limits come from {@code ai.bulkhead.limits} ({@code OPERATION:limit,...}), anything not
+ * listed gets {@code ai.bulkhead.default-limit}. A caller waits up to {@code ai.bulkhead.max-wait}
+ * for a slot and then gets an {@link AIUnavailableException}.
+ * <p>
+ * Publishes {@code ai.bulkhead.available} and {@code ai.bulkhead.rejected} per operation.
+ */
+@Component
+@RequiredArgsConstructor
+public class AIBulkhead {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.bulkhead.limits:}")
+    private String[] limits;
+
+    @Value("${ai.bulkhead.default-limit:4}")
+    private int defaultLimit;
+
+    @Value("${ai.bulkhead.max-wait:PT10S}")
+    private Duration maxWait;
+
+    private final Map<AIOperation, Semaphore> slots = new EnumMap<>(AIOperation.class);
+    private final Map<AIOperation, Counter> rejections = new EnumMap<>(AIOperation.class);
+
+    @PostConstruct
+    private void init() {
+        Map<AIOperation, Integer> configured = new EnumMap<>(AIOperation.class);
+        for (String limit : limits) {
+            int separator = limit.indexOf(':');
+            if (separator <= 0) continue;
+            configured.put(AIOperation.valueOf(limit.substring(0, separator).trim().toUpperCase()),
+                    Integer.parseInt(limit.substring(separator + 1).trim()));
+        }
+
+        for (AIOperation operation : AIOperation.values()) {
+            Semaphore semaphore = new Semaphore(configured.getOrDefault(operation, defaultLimit), true);
+            slots.put(operation, semaphore);
+            rejections.put(operation, Counter.builder("ai.bulkhead.rejected")
+                    .tag("operation", operation.name())
+                    .register(meterRegistry));
+            meterRegistry.gauge("ai.bulkhead.available", Tags.of("operation", operation.name()),
+                    semaphore, Semaphore::availablePermits);
+        }
+    }
+
+    public Slot acquire(AIOperation operation) {
+        Semaphore semaphore = slots.get(operation);
+        try {
+            if (semaphore.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) return new Slot(semaphore);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIUnavailableException("Interrupted waiting for an Azure OpenAI " + operation + " slot", e);
+        }
+        rejections.get(operation).increment();
+        throw new AIUnavailableException("Too many concurrent Azure OpenAI " + operation + " calls");
+    }
+
+    public static class Slot implements AutoCloseable {
+        private final Semaphore semaphore;
+        private boolean released;
+
+        private Slot(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (released) return;
+            released = true;
+            semaphore.release();
+        }
+    }
+}
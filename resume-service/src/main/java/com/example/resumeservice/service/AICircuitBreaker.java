@@ -0,0 +1,186 @@
+package com.example.resumeservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker shared by every Azure OpenAI call of this instance.
+ * <p>
+ * The outcomes of the last {@code ai.circuit.window-size} calls are kept in a ring; a call
+ * fails when it errors, times out or takes longer than {@code ai.circuit.slow-call-threshold}.
+ * Once at least {@code ai.circuit.minimum-calls} are recorded and the failure rate reaches
+ * {@code ai.circuit.failure-rate-threshold} percent, the circuit opens and calls are rejected
+ * without touching the network for {@code ai.circuit.open-duration}. After that up to
+ * {@code ai.circuit.half-open-calls} trial calls go through: all of them succeeding closes
+ * the circuit, any failure opens it again.
+ * <p>
+ * Publishes {@code ai.circuit.state} (0 closed, 1 half-open, 2 open) and {@code ai.circuit.rejected}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AICircuitBreaker {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.circuit.window-size:20}")
+    private int windowSize;
+
+    @Value("${ai.circuit.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${ai.circuit.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${ai.circuit.slow-call-threshold:PT20S}")
+    private Duration slowCallThreshold;
+
+    @Value("${ai.circuit.open-duration:PT30S}")
+    private Duration openDuration;
+
+    @Value("${ai.circuit.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private State state = State.CLOSED;
+    private boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openedAtNanos;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    private Counter rejected;
+
+    @PostConstruct
+    private void init() {
+        outcomes = new boolean[windowSize];
+        rejected = Counter.builder("ai.circuit.rejected")
+                .description("Azure OpenAI calls rejected while the circuit was open")
+                .register(meterRegistry);
+        meterRegistry.gauge("ai.circuit.state", this, breaker -> breaker.state().ordinal());
+    }
+
+    // =========================
+    // Permissions
+    // =========================
+    /**
+     * Cheap check for callers that have a degraded path and would rather not start a call at all.
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> openDurationElapsed();
+            case HALF_OPEN -> trialsStarted < halfOpenCalls;
+        };
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @throws AIUnavailableException while the circuit is open or its half-open trials are taken
+     */
+    public synchronized Permission acquire() {
+        if (state == State.OPEN && openDurationElapsed()) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.OPEN || (state == State.HALF_OPEN && trialsStarted >= halfOpenCalls)) {
+            rejected.increment();
+            throw new AIUnavailableException("Azure OpenAI circuit is open, not calling the provider");
+        }
+        if (state == State.HALF_OPEN) trialsStarted++;
+        return new Permission(state == State.HALF_OPEN);
+    }
+
+    private synchronized void record(Permission permission, boolean failed) {
+        if (permission.trial) {
+            if (state != State.HALF_OPEN) return; // another trial already decided
+            if (failed) {
+                transitionTo(State.OPEN);
+            } else if (++trialsSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) return; // outcome of a call from before the circuit opened
+
+        if (recorded == windowSize && outcomes[next]) failures--;
+        outcomes[next] = failed;
+        if (failed) failures++;
+        next = (next + 1) % windowSize;
+        recorded = Math.min(recorded + 1, windowSize);
+
+        if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+            System.err.println("⚠️ Azure OpenAI circuit opened: " + failures + " of the last " + recorded + " calls failed");
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private synchronized void abandon(Permission permission) {
+        // A trial that never reached the provider leaves its slot to the next caller
+        if (permission.trial && state == State.HALF_OPEN) trialsStarted--;
+    }
+
+    private void transitionTo(State target) {
+        state = target;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (target == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        } else if (target == State.CLOSED) {
+            recorded = 0;
+            next = 0;
+            failures = 0;
+            System.out.println("✅ Azure OpenAI circuit closed");
+        }
+    }
+
+    private boolean openDurationElapsed() {
+        return System.nanoTime() - openedAtNanos >= openDuration.toNanos();
+    }
+
+    /**
+     * One call through the breaker. Report its outcome with {@link #success} or {@link #failure};
+     * closing it without one (e.g. the call was never made) records nothing.
+     */
+    public class Permission implements AutoCloseable {
+        private final boolean trial;
+        private boolean done;
+
+        private Permission(boolean trial) {
+            this.trial = trial;
+        }
+
+        public synchronized void success(long durationNanos) {
+            if (done) return;
+            done = true;
+            record(this, durationNanos > slowCallThreshold.toNanos());
+        }
+
+        public synchronized void failure() {
+            if (done) return;
+            done = true;
+            record(this, true);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (done) return;
+            done = true;
+            abandon(this);
+        }
+    }
+}
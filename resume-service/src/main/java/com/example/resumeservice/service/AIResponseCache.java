@@ -0,0 +1,234 @@
+package com.example.resumeservice.service;
+
+import com.example.resumeservice.entity.enumerations.AIOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of chat completion replies, keyed by a SHA-256 of
+ * (deployment, system role, prompt, temperature).
+ * <p>
+ * Entries live in a size-bounded in-memory LRU and, when {@code ai.cache.disk.enabled}
+ * is set, in one file per key so they survive restarts. Temperature 0 replies are
+ * always cacheable; sampled replies only for operations listed in
+ * {@code ai.cache.nondeterministic-operations}.
+ * <p>
+ * The disk tier persists résumé content in clear text: replies carry the optimized résumé,
+ * its structured data and match evaluations (prompts only appear as their hash). Files
+ * expire {@code ai.cache.disk.ttl} after they were written, and every
+ * {@code ai.cache.disk.cleanup-interval-ms} expired files are deleted and the oldest ones
+ * beyond {@code ai.cache.disk.max-entries} are pruned. Point {@code ai.cache.disk.directory}
+ * at storage that may hold personal data.
+ */
+@Component
+@RequiredArgsConstructor
+public class AIResponseCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ai.cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${ai.cache.disk.enabled:false}")
+    private boolean diskEnabled;
+
+    @Value("${ai.cache.disk.directory:${java.io.tmpdir}/resume-ai-cache}")
+    private Path diskDirectory;
+
+    @Value("${ai.cache.disk.max-entries:10000}")
+    private int diskMaxEntries;
+
+    @Value("${ai.cache.disk.ttl:P7D}")
+    private Duration diskTtl;
+
+    @Value("${ai.cache.nondeterministic-operations:}")
+    private String[] nondeterministicOperations;
+
+    private final Set<AIOperation> cacheableSampledOperations = EnumSet.noneOf(AIOperation.class);
+
+    private Map<String, String> memory;
+
+    private Counter memoryHits;
+    private Counter diskHits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    private void init() {
+        for (String operation : nondeterministicOperations) {
+            if (!operation.isBlank()) cacheableSampledOperations.add(AIOperation.valueOf(operation.trim().toUpperCase()));
+        }
+
+        memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                boolean evict = size() > maxEntries;
+                if (evict) evictions.increment();
+                return evict;
+            }
+        };
+
+        memoryHits = Counter.builder("ai.cache.requests").tag("result", "hit").tag("tier", "memory").register(meterRegistry);
+        diskHits = Counter.builder("ai.cache.requests").tag("result", "hit").tag("tier", "disk").register(meterRegistry);
+        misses = Counter.builder("ai.cache.requests").tag("result", "miss").tag("tier", "none").register(meterRegistry);
+        evictions = Counter.builder("ai.cache.evictions").register(meterRegistry);
+        meterRegistry.gauge("ai.cache.size", this, AIResponseCache::size);
+
+        if (diskEnabled) {
+            try {
+                Files.createDirectories(diskDirectory);
+            } catch (IOException e) {
+                System.err.println("⚠️ AI cache directory not writable, disk tier disabled: " + e.getMessage());
+                diskEnabled = false;
+            }
+            pruneDisk(); // entries left by the previous run may have expired meanwhile
+        }
+    }
+
+    public boolean isCacheable(AIOperation operation, double temperature) {
+        return enabled && (temperature == 0 || cacheableSampledOperations.contains(operation));
+    }
+
+    public String key(String deployment, String systemRole, String prompt, double temperature) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Length-prefix every field so ("ab", "c") and ("a", "bc") never collide
+            for (String field : new String[]{deployment, systemRole, prompt, Double.toString(temperature)}) {
+                byte[] bytes = field.getBytes(StandardCharsets.UTF_8);
+                digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<String> get(String key) {
+        String value;
+        synchronized (memory) {
+            value = memory.get(key);
+        }
+        if (value != null) {
+            memoryHits.increment();
+            return Optional.of(value);
+        }
+
+        if (diskEnabled) {
+            Path file = diskDirectory.resolve(key);
+            try {
+                if (Files.exists(file) && isExpired(Files.getLastModifiedTime(file))) {
+                    delete(file); // expired between two sweeps
+                } else if (Files.exists(file)) {
+                    value = Files.readString(file, StandardCharsets.UTF_8);
+                    synchronized (memory) {
+                        memory.put(key, value);
+                    }
+                    diskHits.increment();
+                    return Optional.of(value);
+                }
+            } catch (IOException e) {
+                System.err.println("⚠️ Failed to read AI cache entry " + key + ": " + e.getMessage());
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String key, String value) {
+        synchronized (memory) {
+            memory.put(key, value);
+        }
+
+        if (diskEnabled) {
+            try {
+                // Write then rename so a crash never leaves a half-written entry behind
+                Path tmp = Files.createTempFile(diskDirectory, key, ".tmp");
+                Files.writeString(tmp, value, StandardCharsets.UTF_8);
+                Files.move(tmp, diskDirectory.resolve(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("⚠️ Failed to write AI cache entry " + key + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // =========================
+    // Disk tier expiry and size limit
+    // =========================
+    @Scheduled(fixedDelayString = "${ai.cache.disk.cleanup-interval-ms:600000}")
+    public void pruneDisk() {
+        if (!diskEnabled) return;
+
+        List<Path> live = new ArrayList<>();
+        Map<Path, FileTime> writtenAt = new HashMap<>();
+        try (Stream<Path> files = Files.list(diskDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                FileTime modified = Files.getLastModifiedTime(file);
+                if (isExpired(modified)) {
+                    delete(file);
+                } else {
+                    live.add(file);
+                    writtenAt.put(file, modified);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Failed to prune AI cache directory: " + e.getMessage());
+            return;
+        }
+
+        if (live.size() <= diskMaxEntries) return;
+        live.sort(Comparator.comparing(writtenAt::get));
+        for (Path file : live.subList(0, live.size() - diskMaxEntries)) {
+            delete(file);
+        }
+    }
+
+    private boolean isExpired(FileTime writtenAt) {
+        return writtenAt.toMillis() < System.currentTimeMillis() - diskTtl.toMillis();
+    }
+
+    private void delete(Path file) {
+        try {
+            if (Files.deleteIfExists(file)) evictions.increment();
+        } catch (IOException e) {
+            System.err.println("⚠️ Failed to delete AI cache entry " + file.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    public int size() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.resumeservice.service;
+
+/**
+ * Thrown instead of an empty reply when an Azure OpenAI call did not produce a result:
+ * the circuit is open, the operation's bulkhead is full, or the call itself failed.
+ */
+public class AIUnavailableException extends RuntimeException {
+    public AIUnavailableException(String message) {
+        super(message);
+    }
+
+    public AIUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.resumeservice.service;
+
+import com.example.resumeservice.entity.dto.AIOperationUsageDTO;
+import com.example.resumeservice.entity.dto.AIUsageSummaryDTO;
+import com.example.resumeservice.entity.enumerations.AIOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token accounting for Azure OpenAI calls, per operation and per user, over the current UTC day.
+ * <p>
+ * Every call first {@link #reserve}s its estimated tokens against the user's
+ * ({@code ai.budget.user.tokens-per-day}) and the instance's ({@code ai.budget.global.tokens-per-day})
+ * budget and is rejected with {@link AIBudgetExceededException} when either would be exceeded;
+ * 0 means unlimited. Closing the reservation replaces the estimate with the {@code usage} the
+ * response reported. Reservations keep concurrent calls from overshooting a budget together.
+ * <p>
+ * Publishes {@code ai.tokens} (by operation and prompt/completion), the prompt size per call as
+ * {@code ai.request.prompt.tokens} and {@code ai.budget.rejected}. Per-user figures are only in
+ * {@link #userSummary}; a user tag would give every user their own time series.
+ * <p>
+ * Past {@code ai.usage.max-tracked-users} windows, only users that neither used nor reserved
+ * anything today are forgotten. A window holding budget use stays until the UTC day rolls over,
+ * so the cap is soft on days with more active users than that.
+ */
+@Component
+@RequiredArgsConstructor
+public class AIUsageTracker {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.budget.user.tokens-per-day:0}")
+    private long userBudget;
+
+    @Value("${ai.budget.global.tokens-per-day:0}")
+    private long globalBudget;
+
+    @Value("${ai.usage.max-tracked-users:100000}")
+    private int maxTrackedUsers;
+
+    private final Object dayLock = new Object();
+    private volatile LocalDate day = today();
+    private volatile UsageWindow global = new UsageWindow();
+    private final Map<Long, UsageWindow> users = new ConcurrentHashMap<>();
+    private volatile int pruneAt;
+
+    private final Map<AIOperation, Counter> promptTokens = new EnumMap<>(AIOperation.class);
+    private final Map<AIOperation, Counter> completionTokens = new EnumMap<>(AIOperation.class);
+    private final Map<AIOperation, DistributionSummary> promptSizes = new EnumMap<>(AIOperation.class);
+    private Counter userRejections;
+    private Counter globalRejections;
+
+    @PostConstruct
+    private void init() {
+        pruneAt = maxTrackedUsers;
+        for (AIOperation operation : AIOperation.values()) {
+            promptTokens.put(operation, Counter.builder("ai.tokens")
+                    .tag("operation", operation.name())
+                    .tag("type", "prompt")
+                    .register(meterRegistry));
+            completionTokens.put(operation, Counter.builder("ai.tokens")
+                    .tag("operation", operation.name())
+                    .tag("type", "completion")
+                    .register(meterRegistry));
+            promptSizes.put(operation, DistributionSummary.builder("ai.request.prompt.tokens")
+                    .description("Prompt tokens per call, to relate ai.request latency to prompt size")
+                    .tag("operation", operation.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        userRejections = Counter.builder("ai.budget.rejected").tag("scope", "user").register(meterRegistry);
+        globalRejections = Counter.builder("ai.budget.rejected").tag("scope", "global").register(meterRegistry);
+        meterRegistry.gauge("ai.budget.global.used", this, tracker -> tracker.currentGlobal().used());
+    }
+
+    // =========================
+    // Reservations
+    // =========================
+    /**
+     * @param userId null when the caller is anonymous; only the global budget applies then
+     */
+    public Reservation reserve(AIOperation operation, Long userId, int estimatedTokens) {
+        UsageWindow globalWindow = currentGlobal();
+        UsageWindow userWindow = userId != null ? userWindow(userId) : null;
+
+        if (userWindow != null && !userWindow.tryReserve(estimatedTokens, userBudget)) {
+            userRejections.increment();
+            throw new AIBudgetExceededException("Daily AI token budget of " + userBudget + " exhausted for user " + userId);
+        }
+        if (!globalWindow.tryReserve(estimatedTokens, globalBudget)) {
+            if (userWindow != null) userWindow.release(estimatedTokens);
+            globalRejections.increment();
+            throw new AIBudgetExceededException("Daily AI token budget of this service is exhausted, try again tomorrow");
+        }
+        return new Reservation(operation, estimatedTokens, globalWindow, userWindow);
+    }
+
+    public class Reservation implements AutoCloseable {
+        private final AIOperation operation;
+        private final int estimatedTokens;
+        private final UsageWindow globalWindow;
+        private final UsageWindow userWindow;
+        private final long startNanos = System.nanoTime();
+        private long prompt = -1;
+        private long completion;
+        private boolean closed;
+
+        private Reservation(AIOperation operation, int estimatedTokens, UsageWindow globalWindow, UsageWindow userWindow) {
+            this.operation = operation;
+            this.estimatedTokens = estimatedTokens;
+            this.globalWindow = globalWindow;
+            this.userWindow = userWindow;
+        }
+
+        /**
+         * The {@code usage} block of the response; calls that never report one only release their estimate.
+         */
+        public synchronized void usage(long promptTokens, long completionTokens) {
+            this.prompt = promptTokens;
+            this.completion = completionTokens;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) return;
+            closed = true;
+            long latencyNanos = System.nanoTime() - startNanos;
+
+            globalWindow.settle(operation, estimatedTokens, prompt, completion, latencyNanos);
+            if (userWindow != null) userWindow.settle(operation, estimatedTokens, prompt, completion, latencyNanos);
+            if (prompt < 0) return;
+
+            promptTokens.get(operation).increment(prompt);
+            completionTokens.get(operation).increment(completion);
+            promptSizes.get(operation).record(prompt);
+        }
+    }
+
+    // =========================
+    // Summaries
+    // =========================
+    public AIUsageSummaryDTO globalSummary() {
+        return currentGlobal().summary(day, null, globalBudget);
+    }
+
+    public AIUsageSummaryDTO userSummary(Long userId) {
+        currentGlobal(); // rolls the day over if needed
+        UsageWindow window = users.get(userId);
+        return (window != null ? window : new UsageWindow()).summary(day, userId, userBudget);
+    }
+
+    // =========================
+    // Daily windows
+    // =========================
+    private UsageWindow currentGlobal() {
+        LocalDate today = today();
+        if (!today.equals(day)) {
+            synchronized (dayLock) {
+                if (!today.equals(day)) {
+                    users.clear();
+                    pruneAt = maxTrackedUsers;
+                    global = new UsageWindow();
+                    day = today;
+                }
+            }
+        }
+        return global;
+    }
+
+    private UsageWindow userWindow(Long userId) {
+        UsageWindow window = users.get(userId);
+        if (window != null) return window;
+        if (users.size() >= pruneAt) pruneUsers();
+        return users.computeIfAbsent(userId, id -> new UsageWindow());
+    }
+
+    private void pruneUsers() {
+        synchronized (dayLock) {
+            if (users.size() < pruneAt) return;
+            // Dropping a window with usage would hand that user a fresh budget before the day is over
+            users.values().removeIf(UsageWindow::isEmpty);
+            // Back off so that, when most windows hold usage, pruning stays amortized O(1) per new user
+            pruneAt = Math.max(maxTrackedUsers, 2 * users.size());
+        }
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private static class UsageWindow {
+        private long reserved;
+        private long used;
+        private final Map<AIOperation, long[]> operations = new EnumMap<>(AIOperation.class);
+
+        private static final int CALLS = 0, PROMPT = 1, COMPLETION = 2, LATENCY_NANOS = 3;
+
+        private synchronized boolean tryReserve(long tokens, long budget) {
+            if (budget > 0 && used + reserved + tokens > budget) return false;
+            reserved += tokens;
+            return true;
+        }
+
+        private synchronized void release(long tokens) {
+            reserved -= tokens;
+        }
+
+        private synchronized void settle(AIOperation operation, long estimated, long prompt, long completion, long latencyNanos) {
+            reserved -= estimated;
+            if (prompt < 0) return;
+            used += prompt + completion;
+            long[] totals = operations.computeIfAbsent(operation, op -> new long[4]);
+            totals[CALLS]++;
+            totals[PROMPT] += prompt;
+            totals[COMPLETION] += completion;
+            totals[LATENCY_NANOS] += latencyNanos;
+        }
+
+        private synchronized long used() {
+            return used + reserved;
+        }
+
+        private synchronized boolean isEmpty() {
+            return reserved == 0 && used == 0;
+        }
+
+        private synchronized AIUsageSummaryDTO summary(LocalDate day, Long userId, long budget) {
+            Map<String, AIOperationUsageDTO> byOperation = new LinkedHashMap<>();
+            operations.forEach((operation, totals) -> byOperation.put(operation.name(), AIOperationUsageDTO.builder()
+                    .calls(totals[CALLS])
+                    .promptTokens(totals[PROMPT])
+                    .completionTokens(totals[COMPLETION])
+                    .totalTokens(totals[PROMPT] + totals[COMPLETION])
+                    .averageLatencyMs(totals[CALLS] == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totals[LATENCY_NANOS]) / (double) totals[CALLS])
+                    .build()));
+            return AIUsageSummaryDTO.builder()
+                    .day(day)
+                    .userId(userId)
+                    .tokenBudget(budget > 0 ? budget : null)
+                    .usedTokens(used + reserved)
+                    .remainingTokens(budget > 0 ? Math.max(0, budget - used - reserved) : null)
+                    .operations(byOperation)
+                    .build();
+        }
+    }
+}
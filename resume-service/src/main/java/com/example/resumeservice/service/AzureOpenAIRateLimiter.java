@@ -0,0 +1,267 @@
+package com.example.resumeservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client-side limiter shared by every Azure OpenAI call of this instance.
+ * <ul>
+ *     <li>requests-per-minute and tokens-per-minute token buckets, re-synced from the
+ *     {@code x-ratelimit-remaining-*} response headers;</li>
+ *     <li>an AIMD concurrency window: +1/window per success, halved on every 429;</li>
+ *     <li>jittered exponential backoff that prefers the server's {@code retry-after-ms} /
+ *     {@code Retry-After} hint. A server hint pauses all callers, not just the one that got it.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class AzureOpenAIRateLimiter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.ratelimit.requests-per-minute:60}")
+    private int requestsPerMinute;
+
+    @Value("${ai.ratelimit.tokens-per-minute:60000}")
+    private int tokensPerMinute;
+
+    @Value("${ai.ratelimit.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${ai.ratelimit.expected-completion-tokens:1000}")
+    private int expectedCompletionTokens;
+
+    @Value("${ai.ratelimit.backoff.base:PT1S}")
+    private Duration backoffBase;
+
+    @Value("${ai.ratelimit.backoff.max:PT30S}")
+    private Duration backoffMax;
+
+    @Value("${ai.ratelimit.acquire-timeout:PT2M}")
+    private Duration acquireTimeout;
+
+    private TokenBucket requestBucket;
+    private TokenBucket tokenBucket;
+
+    private final Object windowLock = new Object();
+    private double concurrencyLimit;
+    private int inFlight;
+    private int waiting;
+    private long pausedUntilNanos;
+
+    private Timer queueWait;
+    private Counter throttled;
+
+    @PostConstruct
+    private void init() {
+        requestBucket = new TokenBucket(requestsPerMinute);
+        tokenBucket = new TokenBucket(tokensPerMinute);
+        concurrencyLimit = maxConcurrency;
+
+        queueWait = Timer.builder("ai.ratelimit.queue.wait")
+                .description("Time spent waiting for a rate limit permit")
+                .register(meterRegistry);
+        throttled = Counter.builder("ai.ratelimit.throttled")
+                .description("429 responses from Azure OpenAI")
+                .register(meterRegistry);
+        meterRegistry.gauge("ai.ratelimit.concurrency.limit", this, limiter -> limiter.currentLimit());
+        meterRegistry.gauge("ai.ratelimit.inflight", this, limiter -> limiter.currentInFlight());
+        meterRegistry.gauge("ai.ratelimit.waiting", this, limiter -> limiter.currentWaiting());
+    }
+
+    public int estimateTokens(String systemRole, String userPrompt) {
+        // ~4 characters per token for English text, plus room for the completion
+        return (systemRole.length() + userPrompt.length()) / 4 + expectedCompletionTokens;
+    }
+
+    // =========================
+    // Acquire / release
+    // =========================
+    public Permit acquire(int estimatedTokens) throws InterruptedException, TimeoutException {
+        long start = System.nanoTime();
+        long deadline = start + acquireTimeout.toNanos();
+
+        synchronized (windowLock) {
+            waiting++;
+            try {
+                while (inFlight >= (int) concurrencyLimit || System.nanoTime() < pausedUntilNanos) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) throw new TimeoutException("Timed out waiting for an Azure OpenAI permit");
+                    long wait = Math.min(remaining, Math.max(pausedUntilNanos - System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(50)));
+                    TimeUnit.NANOSECONDS.timedWait(windowLock, wait);
+                }
+                inFlight++;
+            } finally {
+                waiting--;
+            }
+        }
+
+        try {
+            requestBucket.take(1, deadline);
+            tokenBucket.take(Math.min(estimatedTokens, tokensPerMinute), deadline);
+        } catch (InterruptedException | TimeoutException e) {
+            releaseSlot();
+            throw e;
+        }
+
+        queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new Permit();
+    }
+
+    public void onSuccess(Permit permit, HttpHeaders headers) {
+        synchronized (windowLock) {
+            concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1.0 / concurrencyLimit);
+        }
+        syncFromHeaders(headers);
+        permit.close();
+    }
+
+    /**
+     * Records a 429 and returns how long the caller should back off before its next attempt.
+     */
+    public Duration onThrottled(Permit permit, HttpHeaders headers, int attempt) {
+        throttled.increment();
+        Duration hint = retryAfter(headers);
+        Duration delay = hint != null ? hint : jitteredBackoff(attempt);
+
+        synchronized (windowLock) {
+            concurrencyLimit = Math.max(1, concurrencyLimit / 2);
+            if (hint != null) {
+                pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + hint.toNanos());
+            }
+        }
+        syncFromHeaders(headers);
+        permit.close();
+        return delay;
+    }
+
+    public void onFailure(Permit permit) {
+        permit.close();
+    }
+
+    private void releaseSlot() {
+        synchronized (windowLock) {
+            inFlight--;
+            windowLock.notifyAll();
+        }
+    }
+
+    // =========================
+    // Server hints
+    // =========================
+    private void syncFromHeaders(HttpHeaders headers) {
+        if (headers == null) return;
+        Long remainingRequests = headerAsLong(headers, "x-ratelimit-remaining-requests");
+        Long remainingTokens = headerAsLong(headers, "x-ratelimit-remaining-tokens");
+        if (remainingRequests != null) requestBucket.capAt(remainingRequests);
+        if (remainingTokens != null) tokenBucket.capAt(remainingTokens);
+    }
+
+    private Duration retryAfter(HttpHeaders headers) {
+        if (headers == null) return null;
+        Long millis = headerAsLong(headers, "retry-after-ms");
+        if (millis != null) return Duration.ofMillis(millis);
+        Long seconds = headerAsLong(headers, HttpHeaders.RETRY_AFTER);
+        return seconds != null ? Duration.ofSeconds(seconds) : null;
+    }
+
+    private Duration jitteredBackoff(int attempt) {
+        long cap = Math.min(backoffMax.toMillis(), backoffBase.toMillis() << Math.min(attempt, 16));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap / 2, cap + 1)); // "equal jitter"
+    }
+
+    private static Long headerAsLong(HttpHeaders headers, String name) {
+        String value = headers.getFirst(name);
+        if (value == null) return null;
+        try {
+            return (long) Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return null; // e.g. an HTTP-date Retry-After, which Azure does not send
+        }
+    }
+
+    private double currentLimit() {
+        synchronized (windowLock) {
+            return concurrencyLimit;
+        }
+    }
+
+    private int currentInFlight() {
+        synchronized (windowLock) {
+            return inFlight;
+        }
+    }
+
+    private int currentWaiting() {
+        synchronized (windowLock) {
+            return waiting;
+        }
+    }
+
+    public class Permit implements AutoCloseable {
+        private boolean released;
+
+        @Override
+        public synchronized void close() {
+            if (released) return;
+            released = true;
+            releaseSlot();
+        }
+    }
+
+    /**
+     * Per-minute budget refilled continuously. Callers wait for their share outside the lock.
+     */
+    private static class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double available;
+        private long lastRefill = System.nanoTime();
+
+        private TokenBucket(int perMinute) {
+            this.capacity = perMinute;
+            this.refillPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.available = perMinute;
+        }
+
+        private void take(int amount, long deadlineNanos) throws InterruptedException, TimeoutException {
+            while (true) {
+                long waitNanos;
+                synchronized (this) {
+                    refill();
+                    if (available >= amount) {
+                        available -= amount;
+                        return;
+                    }
+                    waitNanos = (long) ((amount - available) / refillPerNano);
+                }
+                if (System.nanoTime() + waitNanos > deadlineNanos) {
+                    throw new TimeoutException("Timed out waiting for Azure OpenAI quota");
+                }
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+
+        private synchronized void capAt(long remaining) {
+            refill();
+            available = Math.min(available, remaining);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            available = Math.min(capacity, available + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.resumeservice.service;
+
+import com.example.resumeservice.entity.enumerations.FileType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Text extraction for uploaded PDF and DOCX files.
+ * <p>
+ * PDFs are opened with mixed memory settings (decoded streams spill to a temp file
+ * above {@code extraction.max-main-memory-bytes}). Documents with at least
+ * {@code extraction.parallel.min-pages} pages are split into page ranges and stripped
+ * in parallel. {@link PDDocument} is not thread-safe, so every worker opens its own
+ * copy and runs its own {@link PDFTextStripper}. Page and character limits are applied
+ * before any stripping starts and between ranges, so oversized uploads stop early.
+ */
+@Component
+public class DocumentTextExtractor {
+
+    @Value("${extraction.max-pages:50}")
+    private int maxPages;
+
+    @Value("${extraction.max-chars:200000}")
+    private int maxChars;
+
+    @Value("${extraction.max-main-memory-bytes:16777216}")
+    private long maxMainMemoryBytes;
+
+    @Value("${extraction.parallel.min-pages:8}")
+    private int parallelMinPages;
+
+    @Value("${extraction.parallel.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int threads;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    private void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("pdf-extract-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdown();
+    }
+
+    public String extract(byte[] content, FileType fileType) throws Exception {
+        return switch (fileType) {
+            case PDF -> extractPdf(content);
+            case DOCX -> extractDocx(content);
+            default -> "";
+        };
+    }
+
+    private String extractDocx(byte[] content) throws IOException {
+        try (XWPFDocument doc = new XWPFDocument(new ByteArrayInputStream(content));
+             XWPFWordExtractor extractor = new XWPFWordExtractor(doc)) {
+            return truncate(extractor.getText());
+        }
+    }
+
+    private String extractPdf(byte[] content) throws Exception {
+        int pages;
+        try (PDDocument pdf = load(content)) {
+            pages = Math.min(pdf.getNumberOfPages(), maxPages);
+            if (pages < parallelMinPages || threads < 2) {
+                return truncate(strip(pdf, 1, pages));
+            }
+        }
+
+        // One contiguous page range per worker, concatenated back in page order
+        int rangeSize = (pages + threads - 1) / threads;
+        List<Future<String>> ranges = new ArrayList<>();
+        for (int start = 1; start <= pages; start += rangeSize) {
+            int first = start;
+            int last = Math.min(start + rangeSize - 1, pages);
+            ranges.add(executor.submit(() -> {
+                try (PDDocument copy = load(content)) {
+                    return strip(copy, first, last);
+                }
+            }));
+        }
+
+        StringBuilder text = new StringBuilder();
+        try {
+            for (Future<String> range : ranges) {
+                text.append(range.get());
+                if (text.length() >= maxChars) break;
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            ranges.forEach(range -> range.cancel(true));
+        }
+        return truncate(text.toString());
+    }
+
+    private PDDocument load(byte[] content) throws IOException {
+        return PDDocument.load(content, "", null, null, MemoryUsageSetting.setupMixed(maxMainMemoryBytes));
+    }
+
+    private static String strip(PDDocument pdf, int startPage, int endPage) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        return stripper.getText(pdf);
+    }
+
+    private String truncate(String text) {
+        return text.length() > maxChars ? text.substring(0, maxChars) : text;
+    }
+}
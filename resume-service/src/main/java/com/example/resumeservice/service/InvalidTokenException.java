@@ -0,0 +1,10 @@
+package com.example.resumeservice.service;
+
+/**
+ * Thrown when the caller's bearer token does not resolve to a user.
+ */
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -12,6 +12,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class OpenAIService {
 
+    private final WebClient.Builder webClientBuilder;
+
     @Value("${openai.api.key}")
     private String apiKey;
 
@@ -33,7 +35,7 @@ public class OpenAIService {
                 """.formatted(resumeText);
 
         // Call OpenAI API via WebClient
-        WebClient client = WebClient.builder()
+        WebClient client = webClientBuilder.clone()
                 .baseUrl("https://api.openai.com/v1/chat/completions")
                 .defaultHeader("Authorization", "Bearer " + apiKey)
                 .build();
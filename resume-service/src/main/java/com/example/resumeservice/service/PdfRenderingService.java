@@ -0,0 +1,196 @@
+package com.example.resumeservice.service;
+
+import com.lowagie.text.pdf.BaseFont;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.jsoup.Jsoup;
+import org.jsoup.helper.W3CDom;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.xhtmlrenderer.pdf.ITextRenderer;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Renders the optimized resume XHTML to PDF with a fixed pool of reusable
+ * {@link ITextRenderer}s. The pool size is also the render concurrency limit; fonts
+ * from {@code pdf.render.fonts-dir} are registered once per pooled renderer, and all
+ * renderers are warmed up with a small document when the application is ready.
+ * <p>
+ * Render time ({@code pdf.render}) and bytes allocated per render
+ * ({@code pdf.render.allocated}) are published to Micrometer.
+ */
+@Service
+@RequiredArgsConstructor
+public class PdfRenderingService {
+
+    private static final String WARM_UP_HTML =
+            "<html><head><meta charset='UTF-8'/></head><body><h1>Warm-up</h1><ul><li>PDF</li></ul></body></html>";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${pdf.render.pool-size:4}")
+    private int poolSize;
+
+    @Value("${pdf.render.acquire-timeout:PT30S}")
+    private Duration acquireTimeout;
+
+    @Value("${pdf.render.fonts-dir:}")
+    private String fontsDir;
+
+    private BlockingQueue<RendererSlot> pool;
+    private List<File> fonts;
+
+    private Timer renderTimer;
+    private DistributionSummary allocatedBytes;
+
+    @PostConstruct
+    private void init() throws Exception {
+        fonts = new ArrayList<>();
+        if (!fontsDir.isBlank()) {
+            File[] files = new File(fontsDir).listFiles((dir, name) -> name.toLowerCase().endsWith(".ttf"));
+            if (files != null) fonts.addAll(List.of(files));
+        }
+
+        pool = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            pool.add(new RendererSlot(newRenderer()));
+        }
+
+        renderTimer = Timer.builder("pdf.render")
+                .description("XHTML to PDF render time")
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        allocatedBytes = DistributionSummary.builder("pdf.render.allocated")
+                .description("Heap bytes allocated by the rendering thread per render")
+                .baseUnit("bytes")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        // Borrow every renderer once so class loading, CSS defaults and fonts are paid up front
+        List<RendererSlot> borrowed = new ArrayList<>();
+        RendererSlot slot;
+        while ((slot = pool.poll()) != null) {
+            borrowed.add(slot);
+            try {
+                if (slot.renderer == null) slot.renderer = newRenderer();
+                slot.renderer.setDocument(toXhtml(WARM_UP_HTML), null);
+                slot.renderer.layout();
+                slot.renderer.createPDF(OutputStream.nullOutputStream());
+            } catch (Exception e) {
+                System.err.println("⚠️ PDF renderer warm-up failed: " + e.getMessage());
+                slot.renderer = tryNewRenderer();
+            }
+        }
+        pool.addAll(borrowed);
+    }
+
+    // =========================
+    // Render
+    // =========================
+    public void render(String html, OutputStream out) throws Exception {
+        org.w3c.dom.Document xhtml = toXhtml(html);
+
+        RendererSlot slot = pool.poll(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (slot == null) throw new TimeoutException("No PDF renderer available within " + acquireTimeout);
+
+        com.sun.management.ThreadMXBean threads = allocationTracker();
+        long allocatedBefore = threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
+        long start = System.nanoTime();
+        boolean healthy = false;
+        try {
+            if (slot.renderer == null) slot.renderer = newRenderer();
+            slot.renderer.setDocument(xhtml, null);
+            slot.renderer.layout();
+            slot.renderer.createPDF(out);
+            healthy = true;
+        } finally {
+            // A renderer that failed mid-document may hold half-built state, so replace it. The slot
+            // always goes back, even empty, so a failing replacement never shrinks the pool.
+            if (!healthy) slot.renderer = tryNewRenderer();
+            pool.add(slot);
+            renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (allocatedBefore >= 0) {
+                allocatedBytes.record(threads.getCurrentThreadAllocatedBytes() - allocatedBefore);
+            }
+        }
+    }
+
+    /**
+     * Drops any model chatter before the document, wraps bare fragments, and parses the
+     * result once with Jsoup straight into a W3C DOM (no serialize / re-parse round trip).
+     */
+    private org.w3c.dom.Document toXhtml(String html) {
+        int start = firstIndexOf(html, "<html", "<body");
+        if (start > 0) html = html.substring(start);
+        if (!html.contains("<html")) html = "<html><head><meta charset='UTF-8'/></head><body>" + html + "</body></html>";
+
+        Document doc = Jsoup.parse(html);
+        return new W3CDom().fromJsoup(doc);
+    }
+
+    private static int firstIndexOf(String text, String a, String b) {
+        int i = text.indexOf(a);
+        int j = text.indexOf(b);
+        if (i < 0) return j;
+        if (j < 0) return i;
+        return Math.min(i, j);
+    }
+
+    private ITextRenderer newRenderer() throws Exception {
+        ITextRenderer renderer = new ITextRenderer();
+        for (File font : fonts) {
+            renderer.getFontResolver().addFont(font.getAbsolutePath(), BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+        }
+        return renderer;
+    }
+
+    /**
+     * Null when the renderer cannot be built; the slot's next borrower tries again and gets the error.
+     */
+    private ITextRenderer tryNewRenderer() {
+        try {
+            return newRenderer();
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to create PDF renderer: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationTracker() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()
+                ? bean
+                : null;
+    }
+
+    /**
+     * One unit of render concurrency; holds no renderer while a replacement could not be built.
+     */
+    private static class RendererSlot {
+        private ITextRenderer renderer;
+
+        private RendererSlot(ITextRenderer renderer) {
+            this.renderer = renderer;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.resumeservice.service;
+
+import com.example.resumeservice.entity.Resume;
+import com.example.resumeservice.entity.enumerations.AIStatus;
+import com.example.resumeservice.repo.ResumeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Finishes resumes stored while Azure OpenAI was unavailable. Every {@code ai.reprocess.interval-ms}
+ * the oldest {@code ai.reprocess.batch-size} PENDING resumes are claimed (SKIP LOCKED, so instances
+ * never share a row) and go through the AI pipeline one at a time. Nothing is attempted while the
+ * circuit is open, and a round stops as soon as it opens again.
+ * <p>
+ * A claim only sets the row's {@code aiClaimedUntil} to now plus {@code ai.reprocess.claim-lease},
+ * so a resume whose instance crashed mid-way is picked up again once the lease runs out. The lease
+ * has to outlast the AI calls and the render of one batch.
+ */
+@Service
+@RequiredArgsConstructor
+public class PendingAIWorkService {
+
+    private final ResumeRepository resumeRepository;
+    private final ResumeService resumeService;
+    private final AICircuitBreaker aiCircuitBreaker;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ai.reprocess.batch-size:10}")
+    private int batchSize;
+
+    @Value("${ai.reprocess.claim-lease:PT30M}")
+    private Duration claimLease;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    private void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${ai.reprocess.interval-ms:60000}")
+    public void reprocessPending() {
+        if (!aiCircuitBreaker.isCallPermitted()) return;
+
+        List<Long> pending = claimBatch();
+        for (Long resumeId : pending) {
+            if (!aiCircuitBreaker.isCallPermitted()) {
+                // Unclaimed here so the next round does not wait out the lease
+                releaseClaim(resumeId);
+                continue;
+            }
+            String outcome;
+            try {
+                outcome = resumeService.completePendingAI(resumeId) ? "done" : "retry";
+            } catch (Exception e) {
+                // The lease is kept, so this resume is retried once it expires
+                outcome = "error";
+                System.err.println("⚠️ Reprocessing resume " + resumeId + " failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+            meterRegistry.counter("resume.ai.reprocessed", "outcome", outcome).increment();
+        }
+    }
+
+    private List<Long> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Resume> claimable = resumeRepository.findClaimable(AIStatus.PENDING, now, PageRequest.of(0, batchSize));
+            claimable.forEach(resume -> resume.setAiClaimedUntil(now.plus(claimLease)));
+            return claimable.stream().map(Resume::getId).toList();
+        });
+    }
+
+    private void releaseClaim(Long resumeId) {
+        transactionTemplate.executeWithoutResult(status ->
+                resumeRepository.findById(resumeId).ifPresent(resume -> resume.setAiClaimedUntil(null)));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.resumeservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bounded executor for the independent stages of the upload pipeline (mostly
+ * blocking Azure OpenAI calls). Stages are plain {@link CompletableFuture}s, so a
+ * dependency is expressed with {@code thenCompose(result -> submit(...))} and
+ * independent stages simply run side by side up to {@code pipeline.max-concurrency}.
+ * <p>
+ * Only the submitting thread should {@link #join} - pool threads never wait on
+ * each other, so a small pool cannot deadlock.
+ * <p>
+ * {@code pipeline.queue.depth} and {@code pipeline.active} show how many AI stages are
+ * waiting for a thread and how many are running. Once {@code pipeline.queue-capacity} stages
+ * are waiting, {@link #submit} throws {@link PipelineOverloadedException}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineExecutor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${pipeline.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${pipeline.queue-capacity:200}")
+    private int queueCapacity;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    private void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pipeline-");
+        // Carries the request's trace context onto the pool, so AI calls stay inside the upload's trace
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.initialize();
+
+        meterRegistry.gauge("pipeline.queue.depth", executor, pool -> pool.getThreadPoolExecutor().getQueue().size());
+        meterRegistry.gauge("pipeline.active", executor, ThreadPoolTaskExecutor::getActiveCount);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdown();
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> stage) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return stage.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            // Inside thenCompose this fails the dependent stage, and join rethrows it unwrapped
+            throw new PipelineOverloadedException("Too many uploads in progress, try again later", e);
+        }
+    }
+
+    public <T> List<T> joinAll(List<CompletableFuture<T>> stages) throws Exception {
+        join(CompletableFuture.allOf(stages.toArray(CompletableFuture[]::new)));
+        return stages.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Waits for a stage and rethrows its original failure instead of the
+     * {@link ExecutionException} wrapper.
+     */
+    public <T> T join(CompletableFuture<T> stage) throws Exception {
+        try {
+            return stage.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            if (cause instanceof Exception ex) throw ex;
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stage.cancel(true);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.resumeservice.service;
+
+/**
+ * Thrown when the pipeline executor rejects a stage because its queue is full.
+ */
+public class PipelineOverloadedException extends RuntimeException {
+    public PipelineOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,23 +1,47 @@
 package com.example.resumeservice.service;
 
+import com.example.resumeservice.entity.enumerations.AIOperation;
+import com.example.resumeservice.utils.TextChunker;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class ResumeAIService {
 
+    private final AIResponseCache responseCache;
+    private final AzureOpenAIRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final WebClient.Builder webClientBuilder;
+    private final AIUsageTracker usageTracker;
+    private final AICircuitBreaker circuitBreaker;
+    private final AIBulkhead bulkhead;
+
     private WebClient webClient;
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @Value("${azure.openai.endpoint}")
     private String azureEndpoint;
 
@@ -27,12 +51,18 @@ public class ResumeAIService {
     @Value("${azure.openai.deployment}")
     private String deploymentName;
 
+    // Per HTTP attempt; a stream may additionally stay silent this long between two chunks
+    @Value("${ai.request-timeout:PT60S}")
+    private Duration requestTimeout;
+
     private static final int MAX_RETRIES = 5;
-    private static final int RETRY_DELAY_MS = 5000;
+
+    // Chunks are rewritten independently and concatenated, so they must not overlap
+    private static final TextChunker OPTIMIZE_CHUNKER = new TextChunker(750, 0);
 
     @PostConstruct
     private void init() {
-        webClient = WebClient.builder()
+        webClient = webClientBuilder
                 .baseUrl(azureEndpoint)
                 .defaultHeader("api-key", apiKey)
                 .build();
@@ -41,8 +71,10 @@ public class ResumeAIService {
     // =====================================================
     // Extract structured resume information as JSON
     // =====================================================
-    public String extractStructuredData(String resumeText) {
+    public String extractStructuredData(Long userId, String resumeText) {
         return sendChatRequest(
+                AIOperation.EXTRACT,
+                userId,
                 """
                 Extract the following details from this resume and return as valid JSON:
                 {
@@ -64,54 +96,40 @@ public class ResumeAIService {
     // =====================================================
     // Optimize resume and generate clean HTML
     // =====================================================
-    public String optimizeResumeText(String resumeText) {
-        List<String> chunks = splitText(resumeText, 3000); // split into 3k char chunks
-        StringBuilder optimizedHtml = new StringBuilder("<html><head><meta charset='UTF-8'/><style> ... </style></head><body>");
+    public String optimizeResumeText(Long userId, String resumeText) {
+        return optimizeResumeText(userId, resumeText, null);
+    }
+
+    /**
+     * Streams the generated XHTML to {@code onHtmlDelta} as it is produced; the
+     * complete document is still returned once every chunk has finished.
+     */
+    public String optimizeResumeText(Long userId, String resumeText, Consumer<String> onHtmlDelta) {
+        List<String> chunks = OPTIMIZE_CHUNKER.split(resumeText); // ~3k char chunks
+        String head = "<html><head><meta charset='UTF-8'/><style> ... </style></head><body>";
+        StringBuilder optimizedHtml = new StringBuilder(head);
+        if (onHtmlDelta != null) onHtmlDelta.accept(head);
 
         for (String chunk : chunks) {
             String chunkHtml = sendChatRequest(
+                    AIOperation.OPTIMIZE,
+                    userId,
                     """
                     You are a professional resume designer.
                     Rewrite this text into XHTML (only the chunk content, valid HTML tags, no notes):
                     """ + chunk,
                     "Produce valid XHTML for PDF, no comments, no notes.",
-                    0.7
+                    0.7,
+                    onHtmlDelta
             );
             optimizedHtml.append(chunkHtml);
         }
 
         optimizedHtml.append("</body></html>");
+        if (onHtmlDelta != null) onHtmlDelta.accept("</body></html>");
         return optimizedHtml.toString();
     }
 
-    public List<String> splitText(String text, int chunkSize) {
-        List<String> chunks = new ArrayList<>();
-        if (text == null || text.isBlank()) return chunks;
-
-        int start = 0;
-        int length = text.length();
-
-        while (start < length) {
-            int end = Math.min(start + chunkSize, length);
-
-            // Try to avoid cutting words in half
-            if (end < length) {
-                int lastSpace = text.lastIndexOf(' ', end);
-                if (lastSpace > start) {
-                    end = lastSpace;
-                }
-            }
-
-            String chunk = text.substring(start, end).trim();
-            if (!chunk.isEmpty()) {
-                chunks.add(chunk);
-            }
-
-            start = end;
-        }
-
-        return chunks;
-    }
     // =====================================================
     // Optimize resume specifically for a job description
     // =====================================================
@@ -120,10 +138,16 @@ public class ResumeAIService {
     // =====================================================
     // Expand resume for missing skills (weaknesses)
     // =====================================================
-    public String expandResumeForWeaknesses(String resumeText, List<String> missingSkills) {
+    public String expandResumeForWeaknesses(Long userId, String resumeText, List<String> missingSkills) {
+        return expandResumeForWeaknesses(userId, resumeText, missingSkills, null);
+    }
+
+    public String expandResumeForWeaknesses(Long userId, String resumeText, List<String> missingSkills, Consumer<String> onHtmlDelta) {
         String skillsSentence = String.join(", ", missingSkills);
 
         return sendChatRequest(
+                AIOperation.EXPAND,
+                userId,
                 """
                 You are an expert resume writer.
                 Rewrite the following resume into a PDF-ready XHTML document and add experience, projects, or skills to cover these missing areas:
@@ -139,15 +163,18 @@ public class ResumeAIService {
                 Resume text:
                 """ + resumeText,
                 "You are a professional resume designer who maximizes ATS and job match. Do not include any notes or explanations.",
-                0.7
+                0.7,
+                onHtmlDelta
         );
     }
 
     // =====================================================
     // Evaluate resume match against job description
     // =====================================================
-    public String evaluateResumeMatch(String resumeText, String jobDescription) {
+    public String evaluateResumeMatch(Long userId, String resumeText, String jobDescription) {
         return sendChatRequest(
+                AIOperation.EVALUATE,
+                userId,
                 """
                 You are an expert ATS evaluator.
                 Evaluate how well this resume matches the following job description.
@@ -177,59 +204,223 @@ public class ResumeAIService {
     // =====================================================
     // Common Azure OpenAI chat request method
     // =====================================================
-    private String sendChatRequest(String userPrompt, String systemRole, double temperature) {
-        return sendWithRetry(userPrompt, systemRole, temperature, 0);
+    private String sendChatRequest(AIOperation operation, Long userId, String userPrompt, String systemRole, double temperature) {
+        return sendChatRequest(operation, userId, userPrompt, systemRole, temperature, null);
     }
 
-    private String sendWithRetry(String userPrompt, String systemRole, double temperature, int attempt) {
+    /**
+     * @param userId  whose token budget the call is charged to; null for anonymous callers
+     * @param onDelta when non-null the completion is requested with {@code stream: true}
+     *                and every content delta is passed on as soon as it arrives
+     * @throws AIUnavailableException when no reply could be obtained; callers never see an empty string for a failure
+     */
+    private String sendChatRequest(AIOperation operation, Long userId, String userPrompt, String systemRole, double temperature,
+                                   Consumer<String> onDelta) {
+        long start = System.nanoTime();
+        String outcome = "error";
         try {
-            return webClient.post()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/openai/deployments/{deployment}/chat/completions")
-                            .queryParam("api-version", "2024-12-01-preview")
-                            .build(deploymentName))
-                    .bodyValue(Map.of(
-                            "messages", List.of(
-                                    Map.of("role", "system", "content", systemRole),
-                                    Map.of("role", "user", "content", userPrompt)
-                            ),
-                            "temperature", temperature
-                    ))
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(60))
-                    .map(response -> {
-                        var choices = (List<Map<String, Object>>) response.get("choices");
-                        if (choices != null && !choices.isEmpty()) {
-                            var message = (Map<String, Object>) choices.get(0).get("message");
-                            return message.get("content").toString().trim();
+            String reply = cachedChatRequest(operation, userId, userPrompt, systemRole, temperature, onDelta);
+            outcome = reply.isBlank() ? "empty" : "ok";
+            return reply;
+        } catch (AIUnavailableException e) {
+            outcome = "unavailable";
+            throw e;
+        } finally {
+            Timer.builder("ai.request")
+                    .description("Azure OpenAI call time including cache lookups, rate limiting and retries")
+                    .tag("operation", operation.name())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String cachedChatRequest(AIOperation operation, Long userId, String userPrompt, String systemRole, double temperature,
+                                     Consumer<String> onDelta) {
+        if (!responseCache.isCacheable(operation, temperature)) {
+            return sendWithRetry(operation, userId, userPrompt, systemRole, temperature, onDelta);
+        }
+
+        String cacheKey = responseCache.key(deploymentName, systemRole, userPrompt, temperature);
+        Optional<String> cached = responseCache.get(cacheKey);
+        if (cached.isPresent()) {
+            if (onDelta != null) onDelta.accept(cached.get());
+            return cached.get();
+        }
+
+        String reply = sendWithRetry(operation, userId, userPrompt, systemRole, temperature, onDelta);
+        if (!reply.isBlank()) responseCache.put(cacheKey, reply); // never cache failures
+        return reply;
+    }
+
+    private String sendWithRetry(AIOperation operation, Long userId, String userPrompt, String systemRole,
+                                 double temperature, Consumer<String> onDelta) {
+        int estimatedTokens = rateLimiter.estimateTokens(systemRole, userPrompt);
+
+        // Fail fast while the circuit is open, before queueing for a bulkhead slot or quota
+        if (!circuitBreaker.isCallPermitted()) {
+            throw new AIUnavailableException("Azure OpenAI circuit is open, not calling the provider");
+        }
+
+        // Budget rejections happen on reserve, before any quota is spent
+        try (AIBulkhead.Slot slot = bulkhead.acquire(operation);
+             AIUsageTracker.Reservation usage = usageTracker.reserve(operation, userId, estimatedTokens)) {
+            for (int attempt = 0; ; attempt++) {
+                Duration retryDelay;
+                try (AICircuitBreaker.Permission permission = circuitBreaker.acquire()) {
+                    AzureOpenAIRateLimiter.Permit permit;
+                    try {
+                        permit = rateLimiter.acquire(estimatedTokens);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new AIUnavailableException("Interrupted waiting for an Azure OpenAI permit", e);
+                    } catch (TimeoutException e) {
+                        // Local congestion, not a provider failure: the breaker is not told
+                        throw new AIUnavailableException(e.getMessage(), e);
+                    }
+
+                    long callStart = System.nanoTime();
+                    try {
+                        String reply = onDelta != null
+                                ? streamCompletion(permit, usage, userPrompt, systemRole, temperature, onDelta)
+                                : completion(permit, usage, userPrompt, systemRole, temperature);
+                        permission.success(System.nanoTime() - callStart);
+                        return reply;
+
+                    } catch (WebClientResponseException.TooManyRequests e) {
+                        retryDelay = rateLimiter.onThrottled(permit, e.getHeaders(), attempt);
+                        if (attempt >= MAX_RETRIES) {
+                            permission.failure();
+                            throw new AIUnavailableException("Azure OpenAI still throttling after " + MAX_RETRIES + " retries", e);
                         }
-                        return "";
-                    })
-                    .block();
-
-        } catch (WebClientResponseException.TooManyRequests e) {
-            if (attempt < MAX_RETRIES) {
-                System.err.println("⚠️ Azure OpenAI 429 Too Many Requests. Retrying in " + (RETRY_DELAY_MS / 1000) + " seconds...");
-                try { Thread.sleep(RETRY_DELAY_MS); } catch (InterruptedException ignored) {}
-                return sendWithRetry(userPrompt, systemRole, temperature, attempt + 1);
-            } else {
-                System.err.println("❌ Max retries reached. Returning empty result.");
-                return "";
+                    } catch (WebClientResponseException e) {
+                        rateLimiter.onFailure(permit);
+                        // 4xx means this request is wrong, not that the provider is unhealthy
+                        if (e.getStatusCode().is5xxServerError()) permission.failure();
+                        throw new AIUnavailableException("Azure OpenAI call failed with " + e.getStatusCode(), e);
+                    } catch (Exception e) {
+                        rateLimiter.onFailure(permit);
+                        permission.failure();
+                        throw new AIUnavailableException("Azure OpenAI call failed: " + e.getMessage(), e);
+                    }
+                }
+
+                System.err.println("⚠️ Azure OpenAI 429 Too Many Requests. Retrying in " + retryDelay.toMillis() + " ms...");
+                try {
+                    Thread.sleep(retryDelay.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new AIUnavailableException("Interrupted while backing off from Azure OpenAI", e);
+                }
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "";
         }
     }
 
+    private String completion(AzureOpenAIRateLimiter.Permit permit, AIUsageTracker.Reservation usage,
+                              String userPrompt, String systemRole, double temperature) {
+        ResponseEntity<Map> response = webClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/openai/deployments/{deployment}/chat/completions")
+                        .queryParam("api-version", "2024-12-01-preview")
+                        .build(deploymentName))
+                .bodyValue(Map.of(
+                        "messages", List.of(
+                                Map.of("role", "system", "content", systemRole),
+                                Map.of("role", "user", "content", userPrompt)
+                        ),
+                        "temperature", temperature
+                ))
+                .retrieve()
+                .toEntity(Map.class)
+                .timeout(requestTimeout)
+                .block();
+        rateLimiter.onSuccess(permit, response.getHeaders());
+        if (response.getBody().get("usage") instanceof Map<?, ?> tokens
+                && tokens.get("prompt_tokens") instanceof Number prompt
+                && tokens.get("completion_tokens") instanceof Number completion) {
+            usage.usage(prompt.longValue(), completion.longValue());
+        }
+
+        var choices = (List<Map<String, Object>>) response.getBody().get("choices");
+        if (choices != null && !choices.isEmpty()) {
+            var message = (Map<String, Object>) choices.get(0).get("message");
+            return message.get("content").toString().trim();
+        }
+        return "";
+    }
+
+    private String streamCompletion(AzureOpenAIRateLimiter.Permit permit, AIUsageTracker.Reservation usage,
+                                    String userPrompt, String systemRole, double temperature, Consumer<String> onDelta) {
+        ResponseEntity<Flux<ServerSentEvent<String>>> response = webClient.post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/openai/deployments/{deployment}/chat/completions")
+                        .queryParam("api-version", "2024-12-01-preview")
+                        .build(deploymentName))
+                .bodyValue(Map.of(
+                        "messages", List.of(
+                                Map.of("role", "system", "content", systemRole),
+                                Map.of("role", "user", "content", userPrompt)
+                        ),
+                        "temperature", temperature,
+                        "stream", true,
+                        // Adds a final chunk with the usage block, which streams otherwise omit
+                        "stream_options", Map.of("include_usage", true)
+                ))
+                .retrieve()
+                .toEntityFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .timeout(requestTimeout)
+                .block();
+
+        StringBuilder content = new StringBuilder();
+        response.getBody()
+                .map(ServerSentEvent::data)
+                .filter(data -> data != null && !data.equals("[DONE]"))
+                .doOnNext(data -> {
+                    JsonNode chunk = parseChunk(data);
+                    recordUsage(usage, chunk.path("usage"));
+                    String delta = deltaOf(chunk);
+                    if (!delta.isEmpty()) {
+                        content.append(delta);
+                        onDelta.accept(delta);
+                    }
+                })
+                .timeout(requestTimeout) // max silence between two chunks
+                .blockLast();
+
+        rateLimiter.onSuccess(permit, response.getHeaders());
+        return content.toString().trim();
+    }
+
+    private JsonNode parseChunk(String data) {
+        try {
+            return objectMapper.readTree(data);
+        } catch (JsonProcessingException e) {
+            return objectMapper.missingNode();
+        }
+    }
+
+    private static String deltaOf(JsonNode chunk) {
+        JsonNode choices = chunk.path("choices");
+        return choices.isArray() && choices.size() > 0
+                ? choices.get(0).path("delta").path("content").asText("")
+                : "";
+    }
+
+    private static void recordUsage(AIUsageTracker.Reservation reservation, JsonNode usage) {
+        if (!usage.isObject()) return;
+        reservation.usage(usage.path("prompt_tokens").asLong(), usage.path("completion_tokens").asLong());
+    }
+
 
 
     // =====================================================
 // Compare two resumes
 // =====================================================
-    public String compareTwoResumes(String resumeText1, String resumeText2, String jobDescription) {
+    public String compareTwoResumes(Long userId, String resumeText1, String resumeText2, String jobDescription) {
         return sendChatRequest(
+                AIOperation.COMPARE,
+                userId,
                 """
                 You are an expert ATS evaluator and career coach.
                 Compare two resumes and evaluate:
@@ -0,0 +1,265 @@
+package com.example.resumeservice.service;
+
+import com.example.resumeservice.entity.Resume;
+import com.example.resumeservice.entity.ResumeDocument;
+import com.example.resumeservice.repo.ResumeSearchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indexes resumes into Elasticsearch off the request thread.
+ * <p>
+ * Uploads put their document on a bounded queue. A single worker flushes it as one
+ * {@code _bulk} request once {@code indexing.batch-size} documents are waiting or
+ * {@code indexing.flush-interval} has passed since the first one. Documents that fail
+ * are requeued up to {@code indexing.max-attempts} times. When the queue is full,
+ * {@link #enqueue} waits up to {@code indexing.offer-timeout} and then indexes inline,
+ * which slows producers down instead of dropping documents.
+ * <p>
+ * Publishes {@code indexing.queue.depth}, {@code indexing.lag} (age of the oldest
+ * queued document), {@code indexing.bulk} and the retry and failure counters.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResumeIndexingService {
+
+    private final ResumeSearchRepository resumeSearchRepository;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+
+    @Value("${indexing.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${indexing.batch-size:500}")
+    private int batchSize;
+
+    @Value("${indexing.flush-interval:PT2S}")
+    private Duration flushInterval;
+
+    @Value("${indexing.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${indexing.retry-backoff:PT2S}")
+    private Duration retryBackoff;
+
+    @Value("${indexing.offer-timeout:PT1S}")
+    private Duration offerTimeout;
+
+    private BlockingQueue<PendingDocument> queue;
+    private ThreadPoolTaskExecutor worker;
+    private volatile boolean running;
+
+    // Held for the whole bulk call so a delete can never race an in-flight index of the same id
+    private final Object flushLock = new Object();
+
+    // Ids deleted while their document may already be in the worker's current batch
+    private static final long TOMBSTONE_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private final Map<String, Long> tombstones = new ConcurrentHashMap<>();
+
+    private Timer bulkTimer;
+    private DistributionSummary bulkSize;
+    private Counter retries;
+    private Counter failures;
+
+    @PostConstruct
+    private void init() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        bulkTimer = Timer.builder("indexing.bulk")
+                .description("Elasticsearch bulk request time")
+                .register(meterRegistry);
+        bulkSize = DistributionSummary.builder("indexing.bulk.size")
+                .description("Documents per bulk request")
+                .register(meterRegistry);
+        retries = Counter.builder("indexing.retries").register(meterRegistry);
+        failures = Counter.builder("indexing.failed")
+                .description("Documents dropped after exhausting their attempts")
+                .register(meterRegistry);
+        meterRegistry.gauge("indexing.queue.depth", queue, BlockingQueue::size);
+        meterRegistry.gauge("indexing.lag", this, service -> service.lagSeconds());
+
+        running = true;
+        worker = new ThreadPoolTaskExecutor();
+        worker.setCorePoolSize(1);
+        worker.setMaxPoolSize(1);
+        worker.setThreadNamePrefix("es-indexer-");
+        worker.setWaitForTasksToCompleteOnShutdown(true);
+        worker.setAwaitTerminationSeconds(30);
+        worker.initialize();
+        worker.execute(this::runWorker);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        // The worker drains whatever is still queued before it exits
+        running = false;
+        worker.shutdown();
+    }
+
+    // =========================
+    // Producers
+    // =========================
+    public void enqueue(Resume resume) {
+        PendingDocument pending = new PendingDocument(toDocument(resume));
+        try {
+            if (queue.offer(pending, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        System.err.println("⚠️ Indexing queue full, indexing resume " + resume.getId() + " inline");
+        try {
+            observe("index", () -> resumeSearchRepository.save(pending.document));
+        } catch (Exception e) {
+            failures.increment();
+            e.printStackTrace();
+        }
+    }
+
+    public void delete(String id) {
+        synchronized (flushLock) {
+            queue.removeIf(pending -> pending.document.getId().equals(id));
+            tombstones.put(id, System.nanoTime());
+        }
+        observe("delete", () -> resumeSearchRepository.deleteById(id));
+    }
+
+    private static ResumeDocument toDocument(Resume resume) {
+        return ResumeDocument.builder()
+                .id(resume.getId().toString())
+                .filename(resume.getFilename())
+                .fileType(resume.getFileType().toString())
+                .url(resume.getUrl())
+                .content(resume.getContent())
+                .uploadedAt(resume.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .build();
+    }
+
+    // =========================
+    // Worker
+    // =========================
+    private void runWorker() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<PendingDocument> batch = nextBatch();
+                if (!batch.isEmpty() && !flush(batch)) {
+                    TimeUnit.MILLISECONDS.sleep(retryBackoff.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Waits for a first document, then keeps collecting until the batch is full or the flush interval is over.
+     */
+    private List<PendingDocument> nextBatch() throws InterruptedException {
+        List<PendingDocument> batch = new ArrayList<>(batchSize);
+        PendingDocument first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) return batch;
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize && running) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) break;
+            PendingDocument next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+        }
+        if (!running) queue.drainTo(batch, batchSize - batch.size());
+        return batch;
+    }
+
+    /**
+     * Returns false when anything had to be requeued, so the worker backs off before the next batch.
+     */
+    private boolean flush(List<PendingDocument> batch) {
+        synchronized (flushLock) {
+            long now = System.nanoTime();
+            batch.removeIf(pending -> tombstones.containsKey(pending.document.getId()));
+            tombstones.values().removeIf(deletedAt -> now - deletedAt > TOMBSTONE_TTL_NANOS);
+            if (batch.isEmpty()) return true;
+
+            List<ResumeDocument> documents = batch.stream().map(pending -> pending.document).toList();
+            try {
+                observe("bulk", () -> resumeSearchRepository.saveAll(documents));
+                return true;
+            } catch (BulkFailureException e) {
+                Set<String> failedIds = e.getFailedDocuments().keySet();
+                requeue(batch.stream().filter(pending -> failedIds.contains(pending.document.getId())).toList(), e);
+                return false;
+            } catch (Exception e) {
+                requeue(batch, e);
+                return false;
+            } finally {
+                bulkTimer.record(System.nanoTime() - now, TimeUnit.NANOSECONDS);
+                bulkSize.record(documents.size());
+            }
+        }
+    }
+
+    private void requeue(List<PendingDocument> failed, Exception cause) {
+        System.err.println("⚠️ Bulk indexing failed for " + failed.size() + " document(s): " + cause.getMessage());
+        for (PendingDocument pending : failed) {
+            if (++pending.attempts >= maxAttempts || !queue.offer(pending)) {
+                failures.increment();
+                System.err.println("⚠️ Giving up indexing resume " + pending.document.getId());
+                continue;
+            }
+            retries.increment();
+        }
+    }
+
+    /**
+     * One span per Elasticsearch call; batches are flushed on the worker thread, so bulk spans are roots of their own.
+     */
+    private void observe(String operation, Runnable call) {
+        Observation.createNotStarted("elasticsearch.request", observationRegistry)
+                .contextualName("elasticsearch " + operation)
+                .lowCardinalityKeyValue("operation", operation)
+                .observe(call);
+    }
+
+    private double lagSeconds() {
+        PendingDocument oldest = queue.peek();
+        return oldest == null ? 0 : (System.nanoTime() - oldest.enqueuedNanos) / 1e9;
+    }
+
+    private static class PendingDocument {
+        private final ResumeDocument document;
+        private final long enqueuedNanos = System.nanoTime();
+        private int attempts;
+
+        private PendingDocument(ResumeDocument document) {
+            this.document = document;
+        }
+    }
+}
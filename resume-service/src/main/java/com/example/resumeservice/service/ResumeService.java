@@ -3,39 +3,62 @@ package com.example.resumeservice.service;
 import com.example.resumeservice.entity.Resume;
 import com.example.resumeservice.entity.ResumeDocument;
 import com.example.resumeservice.entity.StructuredResume;
+import com.example.resumeservice.entity.dto.AIUsageSummaryDTO;
 import com.example.resumeservice.entity.dto.AnalyticsDTO;
 import com.example.resumeservice.entity.dto.ResumeResponseDTO;
+import com.example.resumeservice.entity.dto.ResumeSearchHitDTO;
+import com.example.resumeservice.entity.dto.ResumeSearchResultDTO;
+import com.example.resumeservice.entity.enumerations.AIStatus;
 import com.example.resumeservice.entity.enumerations.FileType;
+import com.example.resumeservice.entity.enumerations.UploadStage;
 import com.example.resumeservice.entity.mapper.ResumeMapper;
+import com.example.resumeservice.jwt.JwtVerifier;
+import com.example.resumeservice.minio.PresignedUrlCache;
 import com.example.resumeservice.repo.ResumeRepository;
-import com.example.resumeservice.repo.ResumeSearchRepository;
 import com.example.resumeservice.repo.StructuredResumeRepository;
+import com.example.resumeservice.utils.FingerprintedFile;
+import com.example.resumeservice.utils.PdfOutputBuffer;
+import com.example.resumeservice.utils.StructuredResumeMerger;
+import com.example.resumeservice.utils.TextChunker;
+import com.example.resumeservice.utils.TextNormalizer;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import io.minio.*;
-import io.minio.http.Method;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
-import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilterBuilder;
+import org.springframework.data.elasticsearch.core.query.HighlightQuery;
+import org.springframework.data.elasticsearch.core.query.highlight.Highlight;
+import org.springframework.data.elasticsearch.core.query.highlight.HighlightField;
+import org.springframework.data.elasticsearch.core.query.highlight.HighlightParameters;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.xhtmlrenderer.pdf.ITextRenderer;
 
 import java.io.*;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,9 +68,20 @@ public class ResumeService {
     private final ResumeRepository resumeRepository;
     private final ResumeMapper resumeMapper;
     private final MinioClient minioClient;
-    private final ResumeSearchRepository resumeSearchRepository;
     private final ResumeAIService resumeAIService;
     private final StructuredResumeRepository structuredResumeRepository;
+    private final PipelineExecutor pipelineExecutor;
+    private final ResumeIndexingService resumeIndexingService;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final PresignedUrlCache presignedUrlCache;
+    private final JwtVerifier jwtVerifier;
+    private final DocumentTextExtractor documentTextExtractor;
+    private final PdfRenderingService pdfRenderingService;
+    private final UploadMetrics uploadMetrics;
+    private final ObservationRegistry observationRegistry;
+    private final AIUsageTracker aiUsageTracker;
+    private final AICircuitBreaker aiCircuitBreaker;
+    private final PlatformTransactionManager transactionManager;
     private final WebClient userServiceWebClient;      // to get user info
     private final WebClient analyticsWebClient;        // to send analytics
 
@@ -59,145 +93,406 @@ public class ResumeService {
     @Value("${minio.url}")
     private String minioUrl;
 
-    private static final int MAX_CHARS_PER_CHUNK = 7000;
+    // ~7000 characters per structured-extraction prompt; the per-chunk replies are merged by StructuredResumeMerger
+    private static final TextChunker STRUCTURED_CHUNKER = new TextChunker(1750, 0);
+
+    private static final int MAX_SEARCH_WINDOW = 10_000;
+    private static final HighlightQuery SEARCH_HIGHLIGHT = new HighlightQuery(
+            new Highlight(
+                    HighlightParameters.builder()
+                            .withPreTags("<em>")
+                            .withPostTags("</em>")
+                            .withFragmentSize(150)
+                            .withNumberOfFragments(3)
+                            .build(),
+                    List.of(new HighlightField("content"))),
+            ResumeDocument.class);
+
+    @Value("${search.max-page-size:100}")
+    private int maxSearchPageSize;
+
+    @Value("${ai.reprocess.max-attempts:5}")
+    private int maxReprocessAttempts;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    private void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     // =========================
     // Upload Resume (PDF/DOCX)
     // =========================
-    @Transactional
+    // Not transactional: the AI calls and the render take tens of seconds, so only the
+    // row is written in a short transaction and indexing is queued once it commits.
     public ResumeResponseDTO uploadResume(MultipartFile file, String jobDescription, String jwtToken) throws Exception {
-        long startTime = System.currentTimeMillis();
+        return uploadResume(FingerprintedFile.read(file), jobDescription, jwtToken, UploadProgressListener.NOOP);
+    }
 
-        // ---------------- Extract filename & extension ----------------
-        long stepStart = System.currentTimeMillis();
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null) throw new RuntimeException("Invalid file");
-        String ext = originalFilename.substring(originalFilename.lastIndexOf(".") + 1).toUpperCase();
-        FileType fileType;
+    public ResumeResponseDTO uploadResume(FingerprintedFile upload, String jobDescription,
+                                          String jwtToken, UploadProgressListener progress) throws Exception {
+        long startTime = uploadMetrics.uploadStarted();
+        String outcome = "error";
         try {
-            fileType = FileType.valueOf(ext);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("Unsupported file type: " + ext);
+            // ---------------- Extract filename & extension ----------------
+            progress.onStage(UploadStage.EXTRACT);
+            String originalFilename = upload.originalFilename();
+            FileType fileType = resolveFileType(originalFilename);
+
+            // ---------------- Get userId from JWT ----------------
+            long stepStart = System.nanoTime();
+            Long userId = getUserIdFromToken(jwtToken);
+            stepStart = uploadMetrics.stage(UploadMetrics.USER_LOOKUP, fileType, stepStart);
+
+            // ---------------- Reuse an identical earlier upload ----------------
+            Optional<Resume> duplicate = findDuplicateUpload(userId, upload.sha256(), jobDescription);
+            if (duplicate.isPresent()) {
+                uploadMetrics.uploadReused();
+                outcome = "reused";
+                return toResponse(duplicate.get());
+            }
+
+            // ---------------- Extract and clean text ----------------
+            stepStart = System.nanoTime();
+            String extractedText = documentTextExtractor.extract(upload.content(), fileType);
+            stepStart = uploadMetrics.stage(UploadMetrics.EXTRACT, fileType, stepStart);
+            String rawContent = TextNormalizer.normalize(extractedText);
+            uploadMetrics.stage(UploadMetrics.CLEAN, fileType, stepStart);
+            if (rawContent.isBlank()) throw new RuntimeException("No readable text found in resume.");
+
+            // ---------------- Azure OpenAI failing: keep the original, AI runs later ----------------
+            if (!aiCircuitBreaker.isCallPermitted()) {
+                outcome = "degraded";
+                return storeForLater(upload, fileType, rawContent, userId, jobDescription, progress);
+            }
+
+            // ---------------- Fan out independent AI calls ----------------
+            // Structured extraction only needs the text, so it runs alongside the
+            // evaluate -> optimize chain instead of after it.
+            long structuredStart = System.nanoTime();
+            List<CompletableFuture<String>> structuredChunks = submitStructuredExtraction(userId, rawContent);
+
+            // ---------------- Evaluate resume against job description ----------------
+            // Concurrent stages are timed on the pool thread, from when they actually start
+            boolean hasJobDescription = jobDescription != null && !jobDescription.isBlank();
+            CompletableFuture<JsonNode> matchFuture = hasJobDescription
+                    ? pipelineExecutor.submit(() -> {
+                        long evaluateStart = System.nanoTime();
+                        progress.onStage(UploadStage.EVALUATE);
+                        JsonNode match = objectMapper.readTree(resumeAIService.evaluateResumeMatch(userId, rawContent, jobDescription));
+                        uploadMetrics.stage(UploadMetrics.EVALUATE, fileType, evaluateStart);
+                        return match;
+                    })
+                    : CompletableFuture.completedFuture(null);
+
+            // ---------------- Optimize resume HTML (needs the weaknesses) ----------------
+            Consumer<String> onHtmlDelta = progress.wantsHtmlDeltas() ? progress::onHtmlDelta : null;
+            CompletableFuture<String> optimizedHtmlFuture = matchFuture.thenCompose(match -> pipelineExecutor.submit(() -> {
+                long optimizeStart = System.nanoTime();
+                progress.onStage(UploadStage.OPTIMIZE);
+                String html = optimizeHtml(userId, rawContent, match, onHtmlDelta);
+                uploadMetrics.stage(UploadMetrics.OPTIMIZE, fileType, optimizeStart);
+                return html;
+            }));
+
+            JsonNode matchJson;
+            String optimizedHtml;
+            try {
+                matchJson = pipelineExecutor.join(matchFuture);
+                optimizedHtml = pipelineExecutor.join(optimizedHtmlFuture);
+            } catch (AIUnavailableException e) {
+                System.err.println("⚠️ AI unavailable for " + originalFilename + ", storing the original for later: " + e.getMessage());
+                outcome = "degraded";
+                return storeForLater(upload, fileType, rawContent, userId, jobDescription, progress);
+            }
+
+            // ---------------- Generate PDF ----------------
+            stepStart = System.nanoTime();
+            progress.onStage(UploadStage.RENDER);
+            PdfOutputBuffer optimizedPdf = new PdfOutputBuffer(64 * 1024);
+            pdfRenderingService.render(optimizedHtml, optimizedPdf);
+            String optimizedObjectName = optimizedObjectName(originalFilename);
+            stepStart = uploadMetrics.stage(UploadMetrics.RENDER, fileType, stepStart);
+
+            // ---------------- Save Resume entity (objectName only) ----------------
+            progress.onStage(UploadStage.PERSIST);
+            Resume resume = Resume.builder()
+                    .filename(originalFilename)
+                    .objectName(optimizedObjectName)
+                    .fileType(FileType.PDF)
+                    .size((long) optimizedPdf.size())
+                    .uploadedAt(LocalDateTime.now())
+                    .content(rawContent)
+                    .userId(userId)
+                    .jobDescription(jobDescription)
+                    .fingerprint(upload.sha256())
+                    .matchEvaluation(matchJson != null ? matchJson.toString() : null)
+                    .aiStatus(AIStatus.DONE)
+                    .build();
+            resume = saveAndIndex(resume);
+            stepStart = uploadMetrics.stage(UploadMetrics.PERSIST, fileType, stepStart);
+
+            // ---------------- Send analytics ----------------
+            if (matchJson != null) {
+                sendAnalytics(userId, resume.getId(), matchJson);
+                uploadMetrics.stage(UploadMetrics.ANALYTICS, fileType, stepStart);
+            }
+
+            // ---------------- Join structured data extraction ----------------
+            saveStructuredResume(resume.getId(), userId, structuredChunks);
+            // From fan-out to saved row; overlaps the evaluate and optimize stages
+            uploadMetrics.stage(UploadMetrics.STRUCTURED_EXTRACTION, fileType, structuredStart);
+
+            // ---------------- Upload to MinIO (indexing was queued on commit) ----------------
+            stepStart = System.nanoTime();
+            progress.onStage(UploadStage.INDEX);
+            uploadToMinio(optimizedPdf.toInputStream(), optimizedPdf.size(), optimizedObjectName, "application/pdf");
+            stepStart = uploadMetrics.stage(UploadMetrics.STORAGE, fileType, stepStart);
+
+            // ---------------- Map to DTO and generate presigned URL ----------------
+            ResumeResponseDTO response = toResponse(resume);
+            uploadMetrics.stage(UploadMetrics.PRESIGN, fileType, stepStart);
+
+            outcome = "success";
+            return response;
+        } finally {
+            uploadMetrics.uploadFinished(startTime, outcome);
         }
-        System.out.printf("Step 1: Filename & extension parsed in %d ms%n", System.currentTimeMillis() - stepStart);
+    }
 
-        // ---------------- Extract and clean text ----------------
-        stepStart = System.currentTimeMillis();
-        String rawContent = cleanText(extractText(file, ext));
-        if (rawContent.isBlank()) throw new RuntimeException("No readable text found in resume.");
-        System.out.printf("Step 2: Text extracted and cleaned in %d ms%n", System.currentTimeMillis() - stepStart);
+    // =========================
+    // Duplicate upload detection
+    // =========================
+    private Optional<Resume> findDuplicateUpload(Long userId, String fingerprint, String jobDescription) {
+        boolean hasJobDescription = jobDescription != null && !jobDescription.isBlank();
+        return resumeRepository.findAllByUserIdAndFingerprintOrderByUploadedAtDesc(userId, fingerprint)
+                .stream()
+                .filter(r -> Objects.equals(r.getJobDescription(), jobDescription))
+                // a resume the AI gave up on should get a fresh attempt
+                .filter(r -> r.getAiStatus() != AIStatus.FAILED)
+                // older rows have no stored evaluation, so they cannot answer a job-description upload
+                .filter(r -> !hasJobDescription || r.getMatchEvaluation() != null)
+                .findFirst();
+    }
 
-        // ---------------- Get userId from JWT ----------------
-        stepStart = System.currentTimeMillis();
-        Long userId = getUserIdFromToken(jwtToken);
-        System.out.printf("Step 3: User ID fetched in %d ms%n", System.currentTimeMillis() - stepStart);
-
-        // ---------------- Evaluate resume against job description ----------------
-        stepStart = System.currentTimeMillis();
-        String matchEvaluation = null;
-        JsonNode matchJson = null;
-        if (jobDescription != null && !jobDescription.isBlank()) {
-            matchEvaluation = resumeAIService.evaluateResumeMatch(rawContent, jobDescription);
-            matchJson = objectMapper.readTree(matchEvaluation);
+    // =========================
+    // Pipeline steps shared with reprocessing
+    // =========================
+    private List<CompletableFuture<String>> submitStructuredExtraction(Long userId, String rawContent) {
+        return STRUCTURED_CHUNKER.split(rawContent).stream()
+                .map(chunk -> pipelineExecutor.submit(() -> resumeAIService.extractStructuredData(userId, chunk)))
+                .toList();
+    }
+
+    /**
+     * Rewrites the resume as XHTML, covering the evaluation's weaknesses when there are any.
+     */
+    private String optimizeHtml(Long userId, String rawContent, JsonNode match, Consumer<String> onHtmlDelta) {
+        if (match != null && match.path("weaknesses").isArray() && match.path("weaknesses").size() > 0) {
+            List<String> weaknesses = objectMapper.convertValue(match.path("weaknesses"), List.class);
+            return resumeAIService.expandResumeForWeaknesses(userId, rawContent, weaknesses, onHtmlDelta);
         }
-        System.out.printf("Step 4: Resume evaluated against job description in %d ms%n", System.currentTimeMillis() - stepStart);
+        return resumeAIService.optimizeResumeText(userId, rawContent, onHtmlDelta);
+    }
 
-        // ---------------- Optimize resume HTML ----------------
-        stepStart = System.currentTimeMillis();
-        String optimizedHtml;
-        if (matchJson != null && matchJson.path("weaknesses").isArray() && matchJson.path("weaknesses").size() > 0) {
-            List<String> weaknesses = objectMapper.convertValue(matchJson.path("weaknesses"), List.class);
-            optimizedHtml = resumeAIService.expandResumeForWeaknesses(rawContent, weaknesses);
-        } else {
-            optimizedHtml = resumeAIService.optimizeResumeText(rawContent);
+    private void saveStructuredResume(Long resumeId, Long userId, List<CompletableFuture<String>> structuredChunks) {
+        try {
+            // Each chunk only saw part of the resume, so their fields are merged rather than taking the first
+            List<JsonNode> chunkJson = new ArrayList<>();
+            for (String reply : pipelineExecutor.joinAll(structuredChunks)) {
+                try {
+                    chunkJson.add(objectMapper.readTree(reply));
+                } catch (Exception e) {
+                    System.err.println("⚠️ Skipping unparseable structured-extraction chunk for resume " + resumeId + ": " + e.getMessage());
+                }
+            }
+            JsonNode merged = StructuredResumeMerger.merge(chunkJson);
+
+            StructuredResume structuredResume = StructuredResume.builder()
+                    .resumeId(resumeId)
+                    .userId(userId)
+                    .name(merged.path("name").asText(null))
+                    .email(merged.path("email").asText(null))
+                    .phone(merged.path("phone").asText(null))
+                    .skills(merged.has("skills") ? merged.get("skills").toString() : null)
+                    .education(merged.has("education") ? merged.get("education").toString() : null)
+                    .workExperience(merged.has("work_experience") ? merged.get("work_experience").toString() : null)
+                    .projects(merged.has("projects") ? merged.get("projects").toString() : null)
+                    .processedAt(LocalDateTime.now())
+                    .build();
+
+            structuredResumeRepository.save(structuredResume);
+        } catch (Exception e) {
+            e.printStackTrace();
         }
-        System.out.printf("Step 5: Resume HTML optimized in %d ms%n", System.currentTimeMillis() - stepStart);
+    }
 
-        // ---------------- Generate PDF ----------------
-        stepStart = System.currentTimeMillis();
-        byte[] optimizedPdfBytes = htmlToPdf(optimizedHtml);
-        String optimizedObjectName = "optimized-" + UUID.randomUUID() + "-" +
-                originalFilename.replaceAll("\\..*$", ".pdf");
-        System.out.printf("Step 6: PDF generated in %d ms%n", System.currentTimeMillis() - stepStart);
+    private static String optimizedObjectName(String originalFilename) {
+        return "optimized-" + UUID.randomUUID() + "-" + originalFilename.replaceAll("\\..*$", ".pdf");
+    }
 
-        // ---------------- Save Resume entity (objectName only) ----------------
-        stepStart = System.currentTimeMillis();
+    // =========================
+    // Degraded upload (Azure OpenAI unavailable)
+    // =========================
+    /**
+     * Keeps the original file and its text, without evaluation or optimization, and marks the
+     * resume {@link AIStatus#PENDING} so {@link PendingAIWorkService} finishes it once Azure OpenAI
+     * is back. The upload returns in the time it takes to store the file.
+     */
+    private ResumeResponseDTO storeForLater(FingerprintedFile upload, FileType fileType, String rawContent, Long userId,
+                                            String jobDescription, UploadProgressListener progress) throws Exception {
+        progress.onStage(UploadStage.PERSIST);
+        String originalObjectName = "original-" + UUID.randomUUID() + "-" + upload.originalFilename();
         Resume resume = Resume.builder()
-                .filename(originalFilename)
-                .objectName(optimizedObjectName)
-                .fileType(FileType.PDF)
-                .size((long) optimizedPdfBytes.length)
+                .filename(upload.originalFilename())
+                .objectName(originalObjectName)
+                .fileType(fileType)
+                .size((long) upload.content().length)
                 .uploadedAt(LocalDateTime.now())
                 .content(rawContent)
                 .userId(userId)
                 .jobDescription(jobDescription)
+                .fingerprint(upload.sha256())
+                .aiStatus(AIStatus.PENDING)
+                .aiAttempts(0)
                 .build();
-        resume = resumeRepository.save(resume);
-        System.out.printf("Step 7: Resume saved to DB in %d ms%n", System.currentTimeMillis() - stepStart);
+        resume = saveAndIndex(resume);
+
+        progress.onStage(UploadStage.INDEX);
+        uploadToMinio(new ByteArrayInputStream(upload.content()), upload.content().length, originalObjectName, contentType(fileType));
+        return toResponse(resume);
+    }
+
+    /**
+     * Saves the row in its own short transaction and queues it for indexing once that commits,
+     * so the index never holds a resume that was rolled back.
+     */
+    private Resume saveAndIndex(Resume resume) {
+        return transactionTemplate.execute(status -> {
+            Resume saved = resumeRepository.save(resume);
+            afterCommit(() -> resumeIndexingService.enqueue(saved));
+            return saved;
+        });
+    }
 
-        // ---------------- Send analytics ----------------
-        stepStart = System.currentTimeMillis();
-        if (matchJson != null) {
-            sendAnalytics(userId, resume.getId(), matchJson);
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Runs the AI steps a degraded upload skipped and swaps the stored original for the optimized PDF.
+     * Not transactional: the AI calls, render and upload run without holding a connection, and only
+     * the status change is written in a short transaction. The original object is removed after
+     * that commits, so a rollback never leaves the row pointing at a deleted file.
+     *
+     * @return false when Azure OpenAI was still unavailable; the resume stays PENDING until
+     * {@code ai.reprocess.max-attempts} is reached and is FAILED after that
+     */
+    public boolean completePendingAI(Long resumeId) throws Exception {
+        Resume resume = getResumeById(resumeId);
+        if (resume.getAiStatus() != AIStatus.PENDING) return true;
+
+        Long userId = resume.getUserId();
+        String rawContent = resume.getContent();
+        String jobDescription = resume.getJobDescription();
+        boolean hasJobDescription = jobDescription != null && !jobDescription.isBlank();
+
+        JsonNode matchJson;
+        String optimizedHtml;
+        List<CompletableFuture<String>> structuredChunks;
+        try {
+            structuredChunks = submitStructuredExtraction(userId, rawContent);
+            matchJson = hasJobDescription
+                    ? objectMapper.readTree(resumeAIService.evaluateResumeMatch(userId, rawContent, jobDescription))
+                    : null;
+            optimizedHtml = optimizeHtml(userId, rawContent, matchJson, null);
+        } catch (Exception e) {
+            // Unavailable, over budget or an unparseable reply: all count against the attempts
+            System.err.println("⚠️ AI processing for resume " + resumeId + " failed: " + e.getMessage());
+            recordFailedAIAttempt(resumeId);
+            return false;
         }
-        System.out.printf("Step 8: Analytics sent in %d ms%n", System.currentTimeMillis() - stepStart);
-
-        // ---------------- Extract structured data ----------------
-        stepStart = System.currentTimeMillis();
-        List<String> chunks = splitText(rawContent, MAX_CHARS_PER_CHUNK);
-        StringBuilder combinedStructuredJson = new StringBuilder("{\"chunks\": [");
-        for (int i = 0; i < chunks.size(); i++) {
-            String chunk = chunks.get(i);
-            String structuredJson = resumeAIService.extractStructuredData(chunk);
-            combinedStructuredJson.append(structuredJson);
-            if (i < chunks.size() - 1) combinedStructuredJson.append(",");
+
+        PdfOutputBuffer optimizedPdf = new PdfOutputBuffer(64 * 1024);
+        pdfRenderingService.render(optimizedHtml, optimizedPdf);
+        String optimizedObjectName = optimizedObjectName(resume.getFilename());
+        uploadToMinio(optimizedPdf.toInputStream(), optimizedPdf.size(), optimizedObjectName, "application/pdf");
+
+        Resume done = transactionTemplate.execute(status -> {
+            Resume current = getResumeById(resumeId);
+            if (current.getAiStatus() != AIStatus.PENDING) return null;
+
+            String originalObjectName = current.getObjectName();
+            current.setObjectName(optimizedObjectName);
+            current.setFileType(FileType.PDF);
+            current.setSize((long) optimizedPdf.size());
+            current.setMatchEvaluation(matchJson != null ? matchJson.toString() : null);
+            current.setAiStatus(AIStatus.DONE);
+            current.setAiClaimedUntil(null);
+
+            Resume saved = resumeRepository.save(current);
+            afterCommit(() -> {
+                removeObject(originalObjectName);
+                resumeIndexingService.enqueue(saved);
+            });
+            return saved;
+        });
+        if (done == null) {
+            // Finished elsewhere after its lease ran out; drop this run's copy
+            removeObject(optimizedObjectName);
+            return true;
         }
-        combinedStructuredJson.append("]}");
 
-        try {
-            JsonNode json = objectMapper.readTree(combinedStructuredJson.toString());
-            JsonNode first = json.path("chunks").isArray() && json.path("chunks").size() > 0
-                    ? json.path("chunks").get(0)
-                    : json;
+        if (matchJson != null) sendAnalytics(userId, resumeId, matchJson);
+        saveStructuredResume(resumeId, userId, structuredChunks);
+        return true;
+    }
 
-            StructuredResume structuredResume = StructuredResume.builder()
-                    .resumeId(resume.getId())
-                    .userId(userId)
-                    .name(first.path("name").asText(null))
-                    .email(first.path("email").asText(null))
-                    .phone(first.path("phone").asText(null))
-                    .skills(first.path("skills").isArray() ? first.path("skills").toString() : first.path("skills").asText(null))
-                    .education(first.path("education").isArray() ? first.path("education").toString() : first.path("education").asText(null))
-                    .workExperience(first.path("work_experience").isArray() ? first.path("work_experience").toString() : first.path("work_experience").asText(null))
-                    .projects(first.path("projects").isArray() ? first.path("projects").toString() : first.path("projects").asText(null))
-                    .processedAt(LocalDateTime.now())
-                    .build();
+    private void recordFailedAIAttempt(Long resumeId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Resume resume = getResumeById(resumeId);
+            int attempts = (resume.getAiAttempts() != null ? resume.getAiAttempts() : 0) + 1;
+            resume.setAiAttempts(attempts);
+            resume.setAiClaimedUntil(null);
+            if (attempts >= maxReprocessAttempts) {
+                resume.setAiStatus(AIStatus.FAILED);
+                System.err.println("❌ Giving up on AI processing for resume " + resumeId + " after " + attempts + " attempts");
+            }
+            resumeRepository.save(resume);
+        });
+    }
 
-            structuredResumeRepository.save(structuredResume);
+    private void removeObject(String objectName) {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucket).object(objectName).build());
         } catch (Exception e) {
-            e.printStackTrace();
+            System.err.println("⚠️ Failed to remove " + objectName + ": " + e.getMessage());
         }
-        System.out.printf("Step 9: Structured data extracted and saved in %d ms%n", System.currentTimeMillis() - stepStart);
+        presignedUrlCache.evict(objectName);
+    }
 
-        // ---------------- Async upload to MinIO and Elasticsearch ----------------
-        stepStart = System.currentTimeMillis();
-        asyncUploadToMinio(optimizedPdfBytes, optimizedObjectName, "application/pdf");
-        asyncIndexToElasticsearch(resume);
-        System.out.printf("Step 10: Async upload & indexing triggered in %d ms%n", System.currentTimeMillis() - stepStart);
+    private static String contentType(FileType fileType) {
+        return switch (fileType) {
+            case PDF -> "application/pdf";
+            case DOC -> "application/msword";
+            case DOCX -> "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+        };
+    }
 
-        // ---------------- Map to DTO and generate presigned URL ----------------
-        stepStart = System.currentTimeMillis();
+    private ResumeResponseDTO toResponse(Resume resume) throws Exception {
         ResumeResponseDTO response = resumeMapper.toDTO(resume);
-        if (matchEvaluation != null) {
-            response.setMatchEvaluation(objectMapper.convertValue(matchJson, Map.class));
+        if (resume.getMatchEvaluation() != null) {
+            response.setMatchEvaluation(objectMapper.readValue(resume.getMatchEvaluation(), Map.class));
         }
 
         // Generate presigned URL instead of static URL
-        String presignedUrl = generatePresignedDownloadLink(resume.getId());
-        response.setUrl(presignedUrl);
-        System.out.printf("Step 11: DTO mapping & presigned URL in %d ms%n", System.currentTimeMillis() - stepStart);
-
-        System.out.printf("Total uploadResume execution time: %d ms%n", System.currentTimeMillis() - startTime);
+        response.setUrl(generatePresignedDownloadLink(resume));
         return response;
     }
 
@@ -274,64 +569,29 @@ public class ResumeService {
     // =========================
     // Helper methods (same as before)
     // =========================
-    private byte[] htmlToPdf(String html) throws Exception {
-        html = html.replaceAll("(?s)^.*?(?=<html|<body)", "");
-        if (!html.contains("<html")) html = "<html><head><meta charset='UTF-8'/></head><body>" + html + "</body></html>";
-
-        Document doc = Jsoup.parse(html);
-        doc.outputSettings(new Document.OutputSettings().syntax(Document.OutputSettings.Syntax.xml));
-
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            ITextRenderer renderer = new ITextRenderer();
-            renderer.setDocumentFromString(doc.html());
-            renderer.layout();
-            renderer.createPDF(baos);
-            return baos.toByteArray();
-        }
-    }
-
-    private String extractText(MultipartFile file, String ext) throws Exception {
-        try (InputStream textStream = file.getInputStream()) {
-            if (ext.equals("DOCX")) {
-                try (XWPFDocument doc = new XWPFDocument(textStream);
-                     XWPFWordExtractor extractor = new XWPFWordExtractor(doc)) {
-                    return extractor.getText();
-                }
-            } else if (ext.equals("PDF")) {
-                try (PDDocument pdf = PDDocument.load(textStream)) {
-                    return new PDFTextStripper().getText(pdf);
-                }
-            }
+    public FileType resolveFileType(String originalFilename) {
+        if (originalFilename == null) throw new IllegalArgumentException("Invalid file");
+        String ext = originalFilename.substring(originalFilename.lastIndexOf(".") + 1).toUpperCase();
+        try {
+            return FileType.valueOf(ext);
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedFileTypeException("Unsupported file type: " + ext);
         }
-        return "";
-    }
-
-    private String cleanText(String text) {
-        return text.replaceAll("\\s+", " ")
-                .replaceAll("[^\\x20-\\x7E\\p{L}\\p{N}\\p{Punct}\\s]", "")
-                .trim();
     }
 
-    private List<String> splitText(String text, int chunkSize) {
-        return text.codePoints()
-                .mapToObj(c -> String.valueOf((char) c))
-                .collect(Collectors.joining())
-                .lines()
-                .collect(Collectors.groupingBy(line -> line.length() / chunkSize))
-                .values()
-                .stream()
-                .map(lines -> String.join(" ", lines))
-                .collect(Collectors.toList());
+    private String extractAndCleanText(byte[] fileContent, FileType fileType) throws Exception {
+        return TextNormalizer.normalize(documentTextExtractor.extract(fileContent, fileType));
     }
 
-    @Async
-    public void asyncUploadToMinio(byte[] fileBytes, String objectName, String contentType) {
-        try (InputStream stream = new ByteArrayInputStream(fileBytes)) {
+    // Synchronous on purpose: a self-invoked @Async never went through the proxy anyway. Every
+    // caller runs outside a transaction, so the upload holds no connection.
+    private void uploadToMinio(InputStream stream, long size, String objectName, String contentType) {
+        try (stream) {
             minioClient.putObject(
                     PutObjectArgs.builder()
                             .bucket(bucket)
                             .object(objectName)
-                            .stream(stream, fileBytes.length, -1)
+                            .stream(stream, size, -1)
                             .contentType(contentType)
                             .build()
             );
@@ -340,46 +600,66 @@ public class ResumeService {
         }
     }
 
-    @Async
-    public void asyncIndexToElasticsearch(Resume resume) {
-        try {
-            ResumeDocument index = ResumeDocument.builder()
-                    .id(resume.getId().toString())
-                    .filename(resume.getFilename())
-                    .fileType(resume.getFileType().toString())
-                    .url(resume.getUrl())
-                    .content(resume.getContent())
-                    .uploadedAt(resume.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
-                    .build();
-            resumeSearchRepository.save(index);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
     public List<ResumeResponseDTO> getAllResumes() {
         return resumeRepository.findAll().stream().map(resumeMapper::toDTO).collect(Collectors.toList());
     }
 
-    public List<ResumeDocument> searchResumes(String keyword) {
-        if (keyword == null || keyword.trim().isEmpty()) return List.of();
-        return resumeSearchRepository.searchByContent(keyword);
+    /**
+     * One page of matches. Only the metadata fields and highlighted snippets are fetched
+     * from ES, so the response size depends on the page size, not on the match count.
+     */
+    public ResumeSearchResultDTO searchResumes(String keyword, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxSearchPageSize));
+        int pageNumber = Math.max(0, page);
+        if (keyword == null || keyword.isBlank()) {
+            return ResumeSearchResultDTO.builder().query(keyword).page(pageNumber).size(pageSize).hits(List.of()).totalHitsExact(true).build();
+        }
+        // from + size past ES's max_result_window is rejected by the cluster anyway
+        if ((long) (pageNumber + 1) * pageSize > MAX_SEARCH_WINDOW) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_SEARCH_WINDOW + " hits");
+        }
+
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.match(m -> m.field("content").query(keyword).operator(Operator.And)))
+                .withPageable(PageRequest.of(pageNumber, pageSize))
+                .withSourceFilter(new FetchSourceFilterBuilder().withExcludes("content").build())
+                .withHighlightQuery(SEARCH_HIGHLIGHT)
+                .withTrackTotalHits(true)
+                .build();
+
+        SearchHits<ResumeDocument> hits = Observation.createNotStarted("elasticsearch.request", observationRegistry)
+                .contextualName("elasticsearch search")
+                .lowCardinalityKeyValue("operation", "search")
+                .observe(() -> elasticsearchOperations.search(query, ResumeDocument.class));
+
+        List<ResumeSearchHitDTO> results = hits.getSearchHits().stream()
+                .map(hit -> ResumeSearchHitDTO.builder()
+                        .id(hit.getContent().getId())
+                        .filename(hit.getContent().getFilename())
+                        .fileType(hit.getContent().getFileType())
+                        .url(hit.getContent().getUrl())
+                        .uploadedAt(hit.getContent().getUploadedAt())
+                        .score(hit.getScore())
+                        .highlights(hit.getHighlightField("content"))
+                        .build())
+                .toList();
+
+        return ResumeSearchResultDTO.builder()
+                .query(keyword)
+                .page(pageNumber)
+                .size(pageSize)
+                .totalHits(hits.getTotalHits())
+                .totalHitsExact(hits.getTotalHitsRelation() == TotalHitsRelation.EQUAL_TO)
+                .hits(results)
+                .build();
     }
 
     public String generatePresignedDownloadLink(Long id) {
-        Resume resume = getResumeById(id);
-        try {
-            return minioClient.getPresignedObjectUrl(
-                    GetPresignedObjectUrlArgs.builder()
-                            .method(Method.GET)
-                            .bucket(bucket)
-                            .object(resume.getObjectName())
-                            .expiry(60 * 10)
-                            .build()
-            );
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate download link: " + e.getMessage(), e);
-        }
+        return generatePresignedDownloadLink(getResumeById(id));
+    }
+
+    public String generatePresignedDownloadLink(Resume resume) {
+        return presignedUrlCache.downloadUrl(resume.getObjectName());
     }
 
     public Resume getResumeById(Long id) {
@@ -398,11 +678,27 @@ public class ResumeService {
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete file from MinIO: " + e.getMessage(), e);
         }
+        presignedUrlCache.evict(resume.getObjectName());
         resumeRepository.delete(resume);
-        resumeSearchRepository.deleteById(resume.getId().toString());
+        resumeIndexingService.delete(resume.getId().toString());
     }
 
     private Long getUserIdFromToken(String jwtToken) {
+        return jwtVerifier.resolveUserId(jwtToken, this::fetchUserIdFromUserService);
+    }
+
+    /**
+     * The user behind the token, for callers that have to authenticate before doing any work.
+     */
+    public Long authenticate(String jwtToken) {
+        try {
+            return getUserIdFromToken(jwtToken);
+        } catch (RuntimeException e) {
+            throw new InvalidTokenException("Invalid or expired token", e);
+        }
+    }
+
+    private Long fetchUserIdFromUserService(String jwtToken) {
         try {
             Map<String, Object> userInfo = userServiceWebClient.get()
                     .uri("/api/users/me")
@@ -420,26 +716,44 @@ public class ResumeService {
 
     public List<ResumeResponseDTO> getUserResumes(String jwtToken) {
         Long userId = getUserIdFromToken(jwtToken);
-        return resumeRepository.findAllByUserIdOrderByUploadedAtDesc(userId)
-                .stream()
-                .map(resumeMapper::toDTO)
+        List<Resume> resumes = resumeRepository.findAllByUserIdOrderByUploadedAtDesc(userId);
+
+        // Sign from the loaded entities: no per-resume lookup just to read objectName
+        Map<String, String> urls = presignedUrlCache.downloadUrls(resumes.stream().map(Resume::getObjectName).toList());
+        return resumes.stream()
+                .map(resume -> {
+                    ResumeResponseDTO dto = resumeMapper.toDTO(resume);
+                    dto.setUrl(urls.get(resume.getObjectName()));
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
 
-    @Transactional
-    public String compareResumes(MultipartFile file1, MultipartFile file2, String jobDescription) throws Exception {
+    /**
+     * @param jwtToken optional; when present the comparison is charged to that user's AI budget
+     */
+    public String compareResumes(MultipartFile file1, MultipartFile file2, String jobDescription, String jwtToken) throws Exception {
         // Extract text from both files
-        String ext1 = file1.getOriginalFilename().substring(file1.getOriginalFilename().lastIndexOf(".") + 1).toUpperCase();
-        String ext2 = file2.getOriginalFilename().substring(file2.getOriginalFilename().lastIndexOf(".") + 1).toUpperCase();
-
-        String text1 = cleanText(extractText(file1, ext1));
-        String text2 = cleanText(extractText(file2, ext2));
+        String text1 = extractAndCleanText(file1.getBytes(), resolveFileType(file1.getOriginalFilename()));
+        String text2 = extractAndCleanText(file2.getBytes(), resolveFileType(file2.getOriginalFilename()));
 
         if (text1.isBlank() || text2.isBlank()) throw new RuntimeException("One or both resumes are empty");
 
         // Call AI comparison
-        return resumeAIService.compareTwoResumes(text1, text2, jobDescription);
+        Long userId = jwtToken != null ? getUserIdFromToken(jwtToken) : null;
+        return resumeAIService.compareTwoResumes(userId, text1, text2, jobDescription);
+    }
+
+    // =========================
+    // AI token usage
+    // =========================
+    public AIUsageSummaryDTO getAIUsage() {
+        return aiUsageTracker.globalSummary();
+    }
+
+    public AIUsageSummaryDTO getUserAIUsage(String jwtToken) {
+        return aiUsageTracker.userSummary(getUserIdFromToken(jwtToken));
     }
 
 
@@ -0,0 +1,10 @@
+package com.example.resumeservice.service;
+
+/**
+ * Thrown for uploads whose extension is not one of the supported {@code FileType}s.
+ */
+public class UnsupportedFileTypeException extends RuntimeException {
+    public UnsupportedFileTypeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.resumeservice.service;
+
+import com.example.resumeservice.entity.dto.ResumeResponseDTO;
+import com.example.resumeservice.entity.dto.UploadJobDTO;
+import com.example.resumeservice.entity.enumerations.UploadStage;
+import com.example.resumeservice.utils.FingerprintedFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Runs {@link ResumeService#uploadResume} in the background so the request thread
+ * can answer {@code 202 Accepted} right away. Job state lives in memory and is
+ * reported through {@link #getJob} and an SSE stream per job, which also
+ * carries the optimized XHTML as {@code html} events while it is being generated.
+ * <p>
+ * The caller is authenticated before a job is accepted, and queued uploads wait as
+ * temp files rather than on the heap; each file is deleted when its job ends or is rejected.
+ * A job is only visible to the user who submitted it, since its result carries a presigned URL.
+ */
+@Service
+@RequiredArgsConstructor
+public class UploadJobService {
+
+    private final ResumeService resumeService;
+
+    private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${upload.jobs.pool-size:4}")
+    private int poolSize;
+
+    @Value("${upload.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${upload.jobs.retention:PT30M}")
+    private Duration retention;
+
+    @Value("${upload.jobs.sse-timeout:PT5M}")
+    private Duration sseTimeout;
+
+    @PostConstruct
+    private void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdown();
+    }
+
+    // =========================
+    // Submit a new upload job
+    // =========================
+    public UploadJobDTO submit(MultipartFile file, String jobDescription, String jwtToken) throws IOException {
+        // Fail fast before accepting the job: nobody gets to queue work without a valid token
+        Long userId = resumeService.authenticate(jwtToken);
+        String originalFilename = file.getOriginalFilename();
+        resumeService.resolveFileType(originalFilename);
+
+        // The multipart is only valid for the lifetime of the request, so spool it to disk now
+        Path spooled = Files.createTempFile("upload-job-", ".tmp");
+        try {
+            file.transferTo(spooled);
+        } catch (IOException | RuntimeException e) {
+            deleteSpooled(spooled);
+            throw e;
+        }
+
+        UploadJob job = new UploadJob(UUID.randomUUID().toString(), userId, originalFilename);
+        jobs.put(job.id, job);
+
+        try {
+            executor.execute(() -> run(job, spooled, jobDescription, jwtToken));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            deleteSpooled(spooled);
+            throw new UploadQueueFullException("Upload queue is full, try again later", e);
+        }
+        return job.toDTO();
+    }
+
+    private void run(UploadJob job, Path spooled, String jobDescription, String jwtToken) {
+        try {
+            FingerprintedFile upload = FingerprintedFile.read(job.filename, spooled);
+            deleteSpooled(spooled); // the content is on the heap now, for this worker only
+            ResumeResponseDTO result = resumeService.uploadResume(upload, jobDescription, jwtToken, new UploadProgressListener() {
+                @Override
+                public void onStage(UploadStage stage) {
+                    update(job, stage, null, null);
+                }
+
+                @Override
+                public boolean wantsHtmlDeltas() {
+                    return true; // late subscribers are replayed what was generated so far
+                }
+
+                @Override
+                public void onHtmlDelta(String delta) {
+                    appendHtml(job, delta);
+                }
+            });
+            update(job, UploadStage.COMPLETED, result, null);
+        } catch (Exception e) {
+            e.printStackTrace();
+            update(job, UploadStage.FAILED, null, e.getMessage());
+        } finally {
+            deleteSpooled(spooled);
+        }
+    }
+
+    private static void deleteSpooled(Path spooled) {
+        try {
+            Files.deleteIfExists(spooled);
+        } catch (IOException e) {
+            System.err.println("⚠️ Failed to delete spooled upload " + spooled + ": " + e.getMessage());
+        }
+    }
+
+    // =========================
+    // Status & progress stream
+    // =========================
+    // Someone else's job reads as missing, so job ids cannot be probed
+    public Optional<UploadJobDTO> getJob(String jobId, Long userId) {
+        return findOwned(jobId, userId).map(UploadJob::toDTO);
+    }
+
+    public SseEmitter subscribe(String jobId, Long userId) {
+        UploadJob job = findOwned(jobId, userId)
+                .orElseThrow(() -> new RuntimeException("Upload job not found: " + jobId));
+
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(e -> job.emitters.remove(emitter));
+
+        synchronized (job) {
+            UploadJobDTO snapshot = job.toDTO();
+            if (!send(emitter, snapshot)) return emitter;
+            // Late subscribers first get everything generated so far
+            if (!job.isFinished() && job.partialHtml.length() > 0 && !sendHtml(emitter, job.partialHtml.toString())) {
+                return emitter;
+            }
+            if (job.isFinished()) {
+                emitter.complete();
+            } else {
+                job.emitters.add(emitter);
+            }
+        }
+        return emitter;
+    }
+
+    private Optional<UploadJob> findOwned(String jobId, Long userId) {
+        return Optional.ofNullable(jobs.get(jobId)).filter(job -> job.userId.equals(userId));
+    }
+
+    private void update(UploadJob job, UploadStage stage, ResumeResponseDTO result, String error) {
+        List<SseEmitter> targets;
+        UploadJobDTO snapshot;
+        boolean finished;
+        synchronized (job) {
+            job.stage = stage;
+            job.result = result;
+            job.error = error;
+            job.updatedAt = LocalDateTime.now();
+            snapshot = job.toDTO();
+            targets = List.copyOf(job.emitters);
+            finished = job.isFinished();
+            if (finished) {
+                job.emitters.clear();
+                job.partialHtml.setLength(0);
+            }
+        }
+
+        for (SseEmitter emitter : targets) {
+            if (send(emitter, snapshot) && finished) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private void appendHtml(UploadJob job, String delta) {
+        List<SseEmitter> targets;
+        synchronized (job) {
+            job.partialHtml.append(delta);
+            targets = List.copyOf(job.emitters);
+        }
+        for (SseEmitter emitter : targets) {
+            sendHtml(emitter, delta);
+        }
+    }
+
+    private boolean sendHtml(SseEmitter emitter, String html) {
+        try {
+            emitter.send(SseEmitter.event().name("html").data(html));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private boolean send(SseEmitter emitter, UploadJobDTO snapshot) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(snapshot.getJobId() + ":" + snapshot.getStage())
+                    .name(snapshot.getStage().name().toLowerCase())
+                    .data(snapshot));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    // =========================
+    // Drop finished jobs after the retention period
+    // =========================
+    @Scheduled(fixedDelayString = "${upload.jobs.cleanup-interval-ms:60000}")
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.updatedAt.isBefore(cutoff));
+    }
+
+    private static class UploadJob {
+        private final String id;
+        private final Long userId;
+        private final String filename;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final StringBuilder partialHtml = new StringBuilder(); // guarded by the job's monitor
+
+        private volatile UploadStage stage = UploadStage.QUEUED;
+        private volatile LocalDateTime updatedAt = createdAt;
+        private volatile ResumeResponseDTO result;
+        private volatile String error;
+
+        private UploadJob(String id, Long userId, String filename) {
+            this.id = id;
+            this.userId = userId;
+            this.filename = filename;
+        }
+
+        private boolean isFinished() {
+            return stage == UploadStage.COMPLETED || stage == UploadStage.FAILED;
+        }
+
+        private UploadJobDTO toDTO() {
+            return UploadJobDTO.builder()
+                    .jobId(id)
+                    .filename(filename)
+                    .stage(stage)
+                    .error(error)
+                    .result(result)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.resumeservice.service;
+
+import com.example.resumeservice.entity.enumerations.UploadStage;
+
+/**
+ * Receives stage transitions of the upload pipeline in {@link ResumeService}, and
+ * the optimized XHTML while the model is still generating it.
+ */
+@FunctionalInterface
+public interface UploadProgressListener {
+
+    UploadProgressListener NOOP = stage -> { };
+
+    void onStage(UploadStage stage);
+
+    /**
+     * Whether {@link #onHtmlDelta} is consumed. Only then is the completion streamed, since
+     * streaming costs SSE parsing per delta; without it the XHTML arrives in one response.
+     */
+    default boolean wantsHtmlDeltas() {
+        return false;
+    }
+
+    default void onHtmlDelta(String delta) {
+    }
+}
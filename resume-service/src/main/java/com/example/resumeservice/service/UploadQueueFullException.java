@@ -0,0 +1,10 @@
+package com.example.resumeservice.service;
+
+/**
+ * Thrown when the background upload executor rejects a job because its queue is full.
+ */
+public class UploadQueueFullException extends RuntimeException {
+    public UploadQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
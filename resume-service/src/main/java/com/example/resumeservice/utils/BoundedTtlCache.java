@@ -0,0 +1,67 @@
+package com.example.resumeservice.utils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small in-memory cache with a per-entry time to live and at most {@code maxEntries} entries.
+ * <p>
+ * Once full, each insert evicts the least recently used entry, so the cache never scans or
+ * empties itself to stay within the limit. Expired entries are dropped when they are read or
+ * when they become the eldest. All operations are O(1) under the cache's monitor.
+ */
+public final class BoundedTtlCache<K, V> {
+
+    private final int maxEntries;
+    private final Duration defaultTtl;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public BoundedTtlCache(int maxEntries, Duration defaultTtl) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+        this.maxEntries = maxEntries;
+        this.defaultTtl = defaultTtl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > BoundedTtlCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The live value for {@code key}, or null when it is absent or expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) return null;
+        if (System.nanoTime() - entry.expiresAtNanos >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, defaultTtl);
+    }
+
+    /**
+     * Stores {@code value} for {@code ttl}; a ttl of zero or less stores nothing.
+     */
+    public synchronized void put(K key, V value, Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) return;
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttl.toNanos()));
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+}
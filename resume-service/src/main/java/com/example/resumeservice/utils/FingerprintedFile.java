@@ -0,0 +1,44 @@
+package com.example.resumeservice.utils;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * An uploaded file copied out of the multipart request together with the
+ * SHA-256 of its bytes, computed while the stream is read.
+ */
+public record FingerprintedFile(String originalFilename, byte[] content, String sha256) {
+
+    public static FingerprintedFile read(MultipartFile file) throws IOException {
+        return read(file.getOriginalFilename(), file.getInputStream());
+    }
+
+    /**
+     * Reads an upload that was spooled to disk, e.g. while it waited for an upload job worker.
+     */
+    public static FingerprintedFile read(String originalFilename, Path spooled) throws IOException {
+        return read(originalFilename, Files.newInputStream(spooled));
+    }
+
+    private static FingerprintedFile read(String originalFilename, InputStream stream) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        try (InputStream in = new DigestInputStream(stream, digest)) {
+            byte[] content = in.readAllBytes();
+            return new FingerprintedFile(originalFilename, content, HexFormat.of().formatHex(digest.digest()));
+        }
+    }
+}
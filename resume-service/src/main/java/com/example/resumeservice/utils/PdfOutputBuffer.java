@@ -0,0 +1,20 @@
+package com.example.resumeservice.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+/**
+ * Output stream for a rendered PDF that can be read back (e.g. by the MinIO upload)
+ * without the extra full copy made by {@link ByteArrayOutputStream#toByteArray()}.
+ */
+public class PdfOutputBuffer extends ByteArrayOutputStream {
+
+    public PdfOutputBuffer(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    public synchronized InputStream toInputStream() {
+        return new ByteArrayInputStream(buf, 0, count);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.resumeservice.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Combines the structured-extraction replies of the chunks of one resume into a single object:
+ * <ul>
+ *     <li>{@code name}, {@code email}, {@code phone}: first non-blank value;</li>
+ *     <li>{@code skills}: union, compared case-insensitively, in order of first appearance;</li>
+ *     <li>{@code education}, {@code work_experience}, {@code projects}: concatenated in chunk order.</li>
+ * </ul>
+ * A field given as a plain string instead of an array counts as a one-element array. Fields no
+ * chunk mentions are left out, so they read back as missing rather than as empty lists.
+ */
+public final class StructuredResumeMerger {
+
+    private static final List<String> SCALAR_FIELDS = List.of("name", "email", "phone");
+    private static final List<String> LIST_FIELDS = List.of("education", "work_experience", "projects");
+    private static final String SKILLS = "skills";
+
+    private StructuredResumeMerger() {
+    }
+
+    public static ObjectNode merge(List<JsonNode> chunks) {
+        ObjectNode merged = JsonNodeFactory.instance.objectNode();
+
+        for (String field : SCALAR_FIELDS) {
+            for (JsonNode chunk : chunks) {
+                String value = chunk.path(field).asText("");
+                if (!value.isBlank()) {
+                    merged.put(field, value);
+                    break;
+                }
+            }
+        }
+
+        ArrayNode skills = null;
+        Set<String> seenSkills = new HashSet<>();
+        for (JsonNode chunk : chunks) {
+            for (JsonNode skill : elements(chunk.path(SKILLS))) {
+                if (skills == null) skills = merged.putArray(SKILLS);
+                String key = skill.isTextual() ? skill.asText().trim().toLowerCase(Locale.ROOT) : skill.toString();
+                if (!key.isEmpty() && seenSkills.add(key)) skills.add(skill);
+            }
+        }
+
+        for (String field : LIST_FIELDS) {
+            ArrayNode values = null;
+            for (JsonNode chunk : chunks) {
+                for (JsonNode value : elements(chunk.path(field))) {
+                    if (values == null) values = merged.putArray(field);
+                    values.add(value);
+                }
+            }
+        }
+        return merged;
+    }
+
+    private static Iterable<JsonNode> elements(JsonNode field) {
+        if (field.isArray()) return field;
+        if (field.isTextual() && !field.asText().isBlank()) return List.of(field);
+        return List.of();
+    }
+}
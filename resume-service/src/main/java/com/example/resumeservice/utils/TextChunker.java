@@ -0,0 +1,99 @@
+package com.example.resumeservice.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into chunks of roughly {@code maxTokens} tokens for the AI prompts.
+ * <p>
+ * Works directly on a {@link CharSequence}: the only allocations are the chunk
+ * strings themselves. Tokens are approximated as {@value #CHARS_PER_TOKEN} characters.
+ * Within the last half of each window a cut is placed, in order of preference, at a
+ * section break (blank line), a line break, the end of a sentence, or whitespace. A
+ * hard cut is only used for text without any of these. Consecutive chunks can share
+ * {@code overlapTokens} of context, starting at a word boundary.
+ */
+public final class TextChunker {
+
+    public static final int CHARS_PER_TOKEN = 4;
+
+    private final int maxChars;
+    private final int overlapChars;
+
+    public TextChunker(int maxTokens, int overlapTokens) {
+        if (maxTokens <= 0) throw new IllegalArgumentException("maxTokens must be positive");
+        if (overlapTokens < 0 || overlapTokens >= maxTokens) {
+            throw new IllegalArgumentException("overlapTokens must be in [0, maxTokens)");
+        }
+        this.maxChars = maxTokens * CHARS_PER_TOKEN;
+        this.overlapChars = overlapTokens * CHARS_PER_TOKEN;
+    }
+
+    public static int estimateTokens(CharSequence text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    public List<String> split(CharSequence text) {
+        List<String> chunks = new ArrayList<>();
+        if (text == null) return chunks;
+
+        int length = text.length();
+        int start = skipWhitespace(text, 0, length);
+
+        while (start < length) {
+            int end = start + maxChars >= length ? length : findCut(text, start, start + maxChars);
+
+            int trimmedEnd = end;
+            while (trimmedEnd > start && Character.isWhitespace(text.charAt(trimmedEnd - 1))) trimmedEnd--;
+            if (trimmedEnd > start) chunks.add(text.subSequence(start, trimmedEnd).toString());
+
+            if (end >= length) break;
+            start = skipWhitespace(text, nextStart(text, start, end), length);
+        }
+        return chunks;
+    }
+
+    /**
+     * Best cut position in (start, limit]; the character at the returned index starts the next chunk.
+     */
+    private int findCut(CharSequence text, int start, int limit) {
+        int floor = start + maxChars / 2;
+        int line = -1;
+        int sentence = -1;
+        int space = -1;
+
+        for (int i = limit; i > floor; i--) {
+            char c = text.charAt(i - 1);
+            if (c == '\n') {
+                if (i >= 2 && text.charAt(i - 2) == '\n') return i; // section break wins outright
+                if (line < 0) line = i;
+            } else if (Character.isWhitespace(c)) {
+                if (sentence < 0 && i >= 2 && isSentenceEnd(text.charAt(i - 2))) sentence = i;
+                if (space < 0) space = i;
+            }
+        }
+
+        if (line > 0) return line;
+        if (sentence > 0) return sentence;
+        if (space > 0) return space;
+        // No boundary at all: hard cut, but never between the halves of a surrogate pair
+        return Character.isHighSurrogate(text.charAt(limit - 1)) ? limit - 1 : limit;
+    }
+
+    private int nextStart(CharSequence text, int start, int end) {
+        if (overlapChars == 0) return end;
+        int next = Math.max(start + 1, end - overlapChars);
+        // Begin the overlap at a word boundary rather than mid-word
+        while (next < end && !Character.isWhitespace(text.charAt(next - 1))) next++;
+        return next;
+    }
+
+    private static boolean isSentenceEnd(char c) {
+        return c == '.' || c == '!' || c == '?' || c == ';';
+    }
+
+    private static int skipWhitespace(CharSequence text, int from, int length) {
+        while (from < length && Character.isWhitespace(text.charAt(from))) from++;
+        return from;
+    }
+}
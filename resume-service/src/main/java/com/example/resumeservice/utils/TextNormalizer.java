@@ -0,0 +1,83 @@
+package com.example.resumeservice.utils;
+
+/**
+ * Single-pass replacement for the former regex-based {@code cleanText}:
+ * <pre>
+ * text.replaceAll("\\s+", " ")
+ *     .replaceAll("[^\\x20-\\x7E\\p{L}\\p{N}\\p{Punct}\\s]", "")
+ *     .trim();
+ * </pre>
+ * Output is identical to that chain, including its quirks: a removed character between
+ * two whitespace runs still separates them (so both become a space), and only ASCII
+ * whitespace ({@code [ \t\n\x0B\f\r]}) is collapsed. The scratch buffer is reused per thread.
+ */
+public final class TextNormalizer {
+
+    // Larger buffers are dropped after use rather than pinned to the thread forever
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+
+    private TextNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        int length = text.length();
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        out.ensureCapacity(length);
+
+        boolean inWhitespace = false;
+        for (int i = 0; i < length; ) {
+            char c = text.charAt(i);
+
+            // Fast path for printable ASCII, which is nearly all of a typical resume
+            if (c > ' ' && c <= '~') {
+                out.append(c);
+                inWhitespace = false;
+                i++;
+                continue;
+            }
+
+            int cp = Character.codePointAt(text, i);
+            i += Character.charCount(cp);
+
+            if (isRegexWhitespace(cp)) {
+                if (!inWhitespace) out.append(' ');
+                inWhitespace = true;
+                continue;
+            }
+
+            inWhitespace = false;
+            if (isKept(cp)) out.appendCodePoint(cp);
+        }
+
+        int start = 0;
+        int end = out.length();
+        while (start < end && out.charAt(start) == ' ') start++;
+        while (end > start && out.charAt(end - 1) == ' ') end--;
+        String result = out.substring(start, end);
+
+        if (out.capacity() > MAX_RETAINED_CAPACITY) BUFFER.remove();
+        return result;
+    }
+
+    /**
+     * {@code \s} without UNICODE_CHARACTER_CLASS.
+     */
+    private static boolean isRegexWhitespace(int cp) {
+        return cp == ' ' || cp == '\t' || cp == '\n' || cp == 0x0B || cp == '\f' || cp == '\r';
+    }
+
+    /**
+     * {@code [\x20-\x7E\p{L}\p{N}\p{Punct}\s]}; {@code \p{Punct}} is ASCII-only and already in range.
+     */
+    private static boolean isKept(int cp) {
+        if (cp >= 0x20 && cp <= 0x7E) return true;
+        if (Character.isLetter(cp)) return true;
+        int type = Character.getType(cp);
+        return type == Character.DECIMAL_DIGIT_NUMBER
+                || type == Character.LETTER_NUMBER
+                || type == Character.OTHER_NUMBER;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.resumeservice.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class StructuredResumeMergerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void keepsFieldsFromEveryChunk() throws Exception {
+        JsonNode first = objectMapper.readTree("""
+                {"name": "Ana", "email": "", "skills": ["Java", "Spring"],
+                 "work_experience": [{"company": "A"}], "projects": []}
+                """);
+        JsonNode second = objectMapper.readTree("""
+                {"name": "", "email": "ana@example.com", "skills": ["spring", "Docker"],
+                 "work_experience": [{"company": "B"}], "education": "BSc Computer Science"}
+                """);
+
+        JsonNode merged = StructuredResumeMerger.merge(List.of(first, second));
+
+        assertEquals("Ana", merged.path("name").asText());
+        assertEquals("ana@example.com", merged.path("email").asText());
+        assertEquals("[\"Java\",\"Spring\",\"Docker\"]", merged.path("skills").toString());
+        assertEquals("[{\"company\":\"A\"},{\"company\":\"B\"}]", merged.path("work_experience").toString());
+        assertEquals("[\"BSc Computer Science\"]", merged.path("education").toString());
+    }
+
+    @Test
+    void leavesOutFieldsNoChunkMentions() throws Exception {
+        JsonNode merged = StructuredResumeMerger.merge(List.of(objectMapper.readTree("{\"name\": \"Ana\"}")));
+
+        assertFalse(merged.has("phone"));
+        assertFalse(merged.has("skills"));
+        assertFalse(merged.has("projects"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.resumeservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextChunkerTest {
+
+    // 5 tokens = 20 characters per chunk, cuts are searched in the last 10
+    private static final TextChunker CHUNKER = new TextChunker(5, 0);
+
+    @Test
+    void emptyAndBlankInputGiveNoChunks() {
+        assertEquals(List.of(), CHUNKER.split(null));
+        assertEquals(List.of(), CHUNKER.split(""));
+        assertEquals(List.of(), CHUNKER.split(" \n\t "));
+    }
+
+    @Test
+    void inputShorterThanOneChunkIsReturnedTrimmed() {
+        assertEquals(List.of("Short résumé."), CHUNKER.split("  Short résumé.\n"));
+    }
+
+    @Test
+    void cutsAtSectionBreakBeforeAnyLaterBoundary() {
+        assertEquals(List.of("aaaa bbbb", "cccc dddd eeee ffff"),
+                CHUNKER.split("aaaa bbbb\n\ncccc dddd eeee ffff"));
+    }
+
+    @Test
+    void prefersSentenceEndOverPlainWhitespace() {
+        assertEquals(List.of("aaaa bbbb cccc.", "dd eeee ffff gggg"),
+                CHUNKER.split("aaaa bbbb cccc. dd eeee ffff gggg"));
+    }
+
+    @Test
+    void hardCutsTextWithoutBoundaries() {
+        List<String> chunks = CHUNKER.split("x".repeat(50));
+        assertEquals(List.of(20, 20, 10), chunks.stream().map(String::length).toList());
+    }
+
+    @Test
+    void neverSplitsSurrogatePairs() {
+        // The leading 'a' shifts every pair so a plain 20-char cut would land inside one
+        String text = "a" + "😀".repeat(30);
+        List<String> chunks = CHUNKER.split(text);
+
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(chunk.length() <= 20);
+            assertFalse(Character.isHighSurrogate(chunk.charAt(chunk.length() - 1)), chunk);
+            assertFalse(Character.isLowSurrogate(chunk.charAt(0)), chunk);
+        }
+        assertEquals(text, String.join("", chunks));
+    }
+
+    @Test
+    void chunksWithoutOverlapKeepEveryWordInOrder() {
+        String text = randomText(new Random(11L), 5_000);
+        List<String> chunks = new TextChunker(50, 0).split(text);
+
+        assertTrue(chunks.size() > 1);
+        chunks.forEach(chunk -> assertTrue(chunk.length() <= 200));
+        assertEquals(List.of(text.trim().split("\\s+")), List.of(String.join(" ", chunks).split("\\s+")));
+    }
+
+    @Test
+    void overlapStartsAtWordBoundary() {
+        assertEquals(List.of("aaaa bbbb cccc dddd", "dddd eeee ffff"),
+                new TextChunker(5, 2).split("aaaa bbbb cccc dddd eeee ffff"));
+    }
+
+    @Test
+    void overlapAlwaysMakesProgress() {
+        Random random = new Random(3L);
+        for (int maxTokens = 1; maxTokens <= 6; maxTokens++) {
+            for (int overlapTokens = 0; overlapTokens < maxTokens; overlapTokens++) {
+                TextChunker chunker = new TextChunker(maxTokens, overlapTokens);
+                int maxChars = maxTokens * TextChunker.CHARS_PER_TOKEN;
+                for (String text : List.of(randomText(random, 400), "y".repeat(400), "a " + "z".repeat(398))) {
+                    // A start that does not advance would loop forever, so bound the time and the count
+                    List<String> chunks = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> chunker.split(text));
+                    assertTrue(chunks.size() <= text.length());
+                    chunks.forEach(chunk -> assertTrue(chunk.length() <= maxChars));
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsOverlapNotSmallerThanChunk() {
+        assertThrows(IllegalArgumentException.class, () -> new TextChunker(5, 5));
+        assertThrows(IllegalArgumentException.class, () -> new TextChunker(0, 0));
+    }
+
+    private static String randomText(Random random, int words) {
+        String[] separators = {" ", " ", " ", ". ", "\n", "\n\n"};
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            int letters = 1 + random.nextInt(12);
+            for (int l = 0; l < letters; l++) text.append((char) ('a' + random.nextInt(26)));
+            text.append(separators[random.nextInt(separators.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.resumeservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextNormalizerTest {
+
+    // Code points chosen around every branch of the legacy regexes
+    private static final int[] ALPHABET = {
+            'a', 'Z', '0', '9', '.', '-', '@', '~', ' ',
+            '\t', '\n', '\r', 0x0B, '\f',                       // \s
+            0x00, 0x07, 0x1F, 0x7F, 0x85,                       // controls, incl. NEL (not \s)
+            0xA0, 0x2003, 0x2028, 0x3000,                       // Unicode spaces (not \s)
+            0xE9, 0x0416, 0x05D0, 0x4E2D, 0x02B0,               // letters: Ll, Lu, Lo, Lo, Lm
+            0x0301, 0x0903,                                     // combining marks
+            0x0663, 0x2167, 0x00B2, 0x00BD,                     // numbers: Nd, Nl, No, No
+            0x00A7, 0x2022, 0x201C, 0x20AC, 0x00AE,             // non-ASCII punctuation and symbols
+            0x1D400, 0x1F600, 0x10400, 0x1D7CE,                 // supplementary: letter, emoji, letter, digit
+            0xD800, 0xDC00,                                     // lone surrogates
+            0xFEFF, 0xFFFD
+    };
+
+    @Test
+    void matchesLegacyRegexImplementationOnRandomInput() {
+        Random random = new Random(20240501L);
+        for (int run = 0; run < 20_000; run++) {
+            String input = randomText(random, random.nextInt(64));
+            assertEquals(legacy(input), TextNormalizer.normalize(input), () -> "input: " + escape(input));
+        }
+    }
+
+    @Test
+    void matchesLegacyRegexImplementationOnLargeInput() {
+        Random random = new Random(7L);
+        String input = randomText(random, 300_000);
+        assertEquals(legacy(input), TextNormalizer.normalize(input));
+        // Second call on the same thread reuses the buffer
+        assertEquals(legacy(input), TextNormalizer.normalize(input));
+    }
+
+    @Test
+    void handlesEdgeCases() {
+        for (String input : new String[]{"", " ", "\t\n", "\u0000", " \u0000 ", "a \u0001 b", "\uD800", "😀"}) {
+            assertEquals(legacy(input), TextNormalizer.normalize(input), () -> "input: " + escape(input));
+        }
+    }
+
+    private static String legacy(String text) {
+        return text.replaceAll("\\s+", " ")
+                .replaceAll("[^\\x20-\\x7E\\p{L}\\p{N}\\p{Punct}\\s]", "")
+                .trim();
+    }
+
+    private static String randomText(Random random, int codePoints) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < codePoints; i++) {
+            text.appendCodePoint(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder();
+        text.chars().forEach(c -> escaped.append(c >= 0x20 && c < 0x7F ? String.valueOf((char) c) : String.format("\\u%04X", c)));
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.jwt.CustomUserDetailsService;
+import com.example.userservice.jwt.JwtAuthenticationFilter;
+import com.example.userservice.jwt.JwtKeyManager;
+import com.example.userservice.jwt.JwtUtils;
+import com.example.userservice.model.User;
+import com.example.userservice.model.enumeration.Role;
+import com.example.userservice.repo.UserRepository;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request authentication through {@link JwtAuthenticationFilter}, against the previous filter
+ * (two parser builds and signature checks plus a user lookup per request). The repository is a
+ * Mockito stub, so the database round trip the lookup costs in production is not even included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-sec";
+    private static final String EMAIL = "jane.doe@example.com";
+
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter filterWithUserCache;
+    private OncePerRequestFilter legacyFilter;
+
+    private String claimsToken;
+    private String legacyToken;
+
+    @Setup
+    public void setUp() {
+        JwtKeyManager keyManager = new JwtKeyManager(new DefaultResourceLoader());
+        ReflectionTestUtils.setField(keyManager, "mode", "hmac");
+        ReflectionTestUtils.setField(keyManager, "secret", SECRET);
+        ReflectionTestUtils.setField(keyManager, "keyId", "");
+        ReflectionTestUtils.setField(keyManager, "previousSecrets", new String[0]);
+        ReflectionTestUtils.invokeMethod(keyManager, "init");
+        JwtUtils jwtUtils = new JwtUtils(keyManager, TimeUnit.HOURS.toMillis(1));
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        User user = User.builder().id(42L).email(EMAIL).password("{noop}secret").role(Role.USER).emailVerified(true).build();
+        Mockito.when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+
+        filter = new JwtAuthenticationFilter(jwtUtils, userDetailsService(userRepository, Duration.ZERO));
+        filterWithUserCache = new JwtAuthenticationFilter(jwtUtils, userDetailsService(userRepository, Duration.ofMinutes(5)));
+        legacyFilter = new LegacyJwtAuthenticationFilter(
+                Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)),
+                userDetailsService(userRepository, Duration.ZERO));
+
+        claimsToken = jwtUtils.generateToken(EMAIL, 42L, Role.USER.name());
+        legacyToken = jwtUtils.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public Authentication legacyFilter() throws Exception {
+        return authenticate(legacyFilter, legacyToken);
+    }
+
+    @Benchmark
+    public Authentication claimsPrincipal() throws Exception {
+        return authenticate(filter, claimsToken);
+    }
+
+    @Benchmark
+    public Authentication tokenWithoutUserIdClaim() throws Exception {
+        return authenticate(filter, legacyToken);
+    }
+
+    @Benchmark
+    public Authentication tokenWithoutUserIdClaimCachedLookup() throws Exception {
+        return authenticate(filterWithUserCache, legacyToken);
+    }
+
+    private static Authentication authenticate(OncePerRequestFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static CustomUserDetailsService userDetailsService(UserRepository userRepository, Duration cacheTtl) {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository);
+        ReflectionTestUtils.setField(service, "cacheTtl", cacheTtl);
+        ReflectionTestUtils.setField(service, "cacheMaxEntries", 10_000);
+        return service;
+    }
+
+    /**
+     * The filter as it was before: validateJwt, getEmailFromJwt, then loadUserByUsername.
+     */
+    private static class LegacyJwtAuthenticationFilter extends OncePerRequestFilter {
+        private final SecretKey key;
+        private final UserDetailsService userDetailsService;
+
+        private LegacyJwtAuthenticationFilter(SecretKey key, UserDetailsService userDetailsService) {
+            this.key = key;
+            this.userDetailsService = userDetailsService;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String header = request.getHeader("Authorization");
+            if (header != null && header.startsWith("Bearer ")) {
+                String token = header.substring(7);
+                if (validateJwt(token)) {
+                    String email = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+                }
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        private boolean validateJwt(String token) {
+            try {
+                Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+                return true;
+            } catch (JwtException | IllegalArgumentException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -11,21 +11,24 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class EmailService {
 
+    public static final String VERIFICATION_SUBJECT = "Email Verification";
+
     private final JavaMailSender mailSender;
 
-    public void sendEmail(String to, String body) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            helper.setTo(to);
-            helper.setSubject("Email Verification");
-            helper.setText(body, true); // true = HTML support
+    public MimeMessage createMessage(String to, String subject, String body) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(body, true); // true = HTML support
+        return message;
+    }
 
-            mailSender.send(message);
-            System.out.println("✅ Email sent to: " + to);
-        } catch (MessagingException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to send email");
-        }
+    /**
+     * Sends every message over one SMTP connection. Failures are reported per message
+     * through {@link org.springframework.mail.MailSendException#getFailedMessages()}.
+     */
+    public void sendAll(MimeMessage... messages) {
+        mailSender.send(messages);
     }
 }
@@ -1,5 +1,6 @@
 package com.example.userservice.config;
 
+import com.example.userservice.model.dto.UserResponseDTO;
 import com.example.userservice.service.UserService;
 import com.example.userservice.jwt.JwtUtils;
 import jakarta.servlet.http.HttpServletRequest;
@@ -38,10 +39,10 @@ public class OAuth2LoginSuccessHandler implements AuthenticationSuccessHandler {
 
         // Persist user in DB if not exists
         System.out.println("Registering OAuth2 user: " + email);
-        userService.registerOAuthUser(email, name);
+        UserResponseDTO user = userService.registerOAuthUser(email, name);
 
         // Generate JWT token
-        String token = jwtUtils.generateToken(email);
+        String token = jwtUtils.generateToken(email, user.getId(), user.getRole());
 
         // ✅ Redirect to frontend SPA with token in query params
         String redirectUrl = "http://localhost:5173/auth?token=" + URLEncoder.encode(token, StandardCharsets.UTF_8);
@@ -33,10 +33,14 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // Restores the JWT authentication on ASYNC dispatches of Mono endpoints
+                .securityContext(context -> context.securityContextRepository(JwtAuthenticationFilter.SECURITY_CONTEXT_REPOSITORY))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // ✅ allow preflight
                         .requestMatchers("/api/users/register", "/api/users/login", "/api/users/verify-code").permitAll()
                         .requestMatchers("/oauth2/**").permitAll()
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth2 -> oauth2
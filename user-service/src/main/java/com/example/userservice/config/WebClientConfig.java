@@ -1,17 +1,31 @@
 package com.example.userservice.config;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
 
     @Bean
-    public WebClient addressServiceWebClient(@Value("${addressservice.url}") String baseUrl) {
-        return WebClient.builder()
+    public WebClient addressServiceWebClient(WebClient.Builder builder,
+                                             @Value("${addressservice.url}") String baseUrl,
+                                             @Value("${addressservice.connect-timeout:PT2S}") Duration connectTimeout,
+                                             @Value("${addressservice.response-timeout:PT3S}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+
+        // The auto-configured builder adds client spans and trace propagation
+        return builder
                 .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -3,17 +3,31 @@ package com.example.userservice.jwt;
 import com.example.userservice.model.User;
 import com.example.userservice.repo.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    // Zero disables the cache
+    @Value("${jwt.user-details-cache.ttl:PT0S}")
+    private Duration cacheTtl;
+
+    @Value("${jwt.user-details-cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    private final Map<String, CachedUser> cache = new ConcurrentHashMap<>();
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
@@ -24,4 +38,27 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .roles("USER")
                 .build();
     }
+
+    /**
+     * Request authentication for tokens that predate the user id claim. Never used for
+     * login, which must always see the current password hash.
+     */
+    public UserDetails loadUserByUsernameCached(String email) {
+        if (cacheTtl.isZero()) return loadUserByUsername(email);
+
+        long now = System.nanoTime();
+        CachedUser cached = cache.get(email);
+        if (cached != null && now < cached.expiresAtNanos) return cached.user;
+
+        UserDetails user = loadUserByUsername(email);
+        if (cache.size() >= cacheMaxEntries) {
+            cache.values().removeIf(entry -> now >= entry.expiresAtNanos);
+            if (cache.size() >= cacheMaxEntries) cache.clear();
+        }
+        cache.put(email, new CachedUser(user, now + cacheTtl.toNanos()));
+        return user;
+    }
+
+    private record CachedUser(UserDetails user, long expiresAtNanos) {
+    }
 }
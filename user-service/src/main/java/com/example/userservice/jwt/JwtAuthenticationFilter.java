@@ -1,41 +1,80 @@
 package com.example.userservice.jwt;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Parses the bearer token once. Tokens with a user id claim become a {@link JwtPrincipal}
+ * straight from their claims; older tokens fall back to a (optionally cached) user lookup.
+ * <p>
+ * The authentication is also saved as a request attribute ({@link #SECURITY_CONTEXT_REPOSITORY},
+ * which SecurityConfig loads from), because this filter skips the ASYNC re-dispatch of
+ * endpoints returning {@code Mono} and that dispatch must still be authenticated.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    public static final SecurityContextRepository SECURITY_CONTEXT_REPOSITORY = new RequestAttributeSecurityContextRepository();
+
     private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
+
+    // One immutable authority list per role instead of one per request
+    private final Map<String, List<GrantedAuthority>> authoritiesByRole = new ConcurrentHashMap<>();
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         String header = request.getHeader("Authorization");
-        if (header != null && header.startsWith("Bearer ")) {
-            String token = header.substring(7);
-            if (jwtUtils.validateJwt(token)) {
-                String email = jwtUtils.getEmailFromJwt(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            Claims claims = jwtUtils.parseClaims(header.substring(BEARER_PREFIX.length()));
+            if (claims != null) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authenticate(claims));
+                SecurityContextHolder.setContext(context);
+                SECURITY_CONTEXT_REPOSITORY.saveContext(context, request, response);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    private UsernamePasswordAuthenticationToken authenticate(Claims claims) {
+        Object uid = claims.get(JwtUtils.USER_ID_CLAIM);
+        if (uid instanceof Number userId) {
+            String role = claims.get(JwtUtils.ROLE_CLAIM, String.class);
+            JwtPrincipal principal = new JwtPrincipal(userId.longValue(), claims.getSubject(), role);
+            return new UsernamePasswordAuthenticationToken(principal, null, authorities(role));
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsernameCached(claims.getSubject());
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private List<GrantedAuthority> authorities(String role) {
+        return authoritiesByRole.computeIfAbsent(role == null ? "USER" : role,
+                r -> AuthorityUtils.createAuthorityList("ROLE_" + r));
+    }
 }
@@ -0,0 +1,200 @@
+package com.example.userservice.jwt;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signing and verification keys for the JWTs issued by this service.
+ * <ul>
+ *     <li>{@code jwt.mode=hmac} (default): HS256/384/512 with {@code jwt.secret}. Secrets listed in
+ *     {@code jwt.previous-secrets} ({@code kid:secret,...}) still verify during a rotation.</li>
+ *     <li>{@code jwt.mode=rsa}: RS256 (RS384/RS512 for larger keys) with the private key stored under {@code jwt.keystore.alias}.
+ *     Every other certificate in the keystore verifies only. All public keys are published through
+ *     {@link #jwks()}.</li>
+ * </ul>
+ * Every token carries the signing key's id in its {@code kid} header. To rotate, make the new
+ * key current and keep the old one as a verify-only key for at least {@code jwt.expirationMs}.
+ * Without configured keys a random per-instance key is used, as before.
+ */
+@Component
+public class JwtKeyManager {
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${jwt.mode:hmac}")
+    private String mode;
+
+    @Value("${jwt.secret:}")
+    private String secret;
+
+    @Value("${jwt.key-id:}")
+    private String keyId;
+
+    @Value("${jwt.previous-secrets:}")
+    private String[] previousSecrets;
+
+    @Value("${jwt.keystore.location:}")
+    private String keystoreLocation;
+
+    @Value("${jwt.keystore.password:}")
+    private String keystorePassword;
+
+    @Value("${jwt.keystore.type:PKCS12}")
+    private String keystoreType;
+
+    @Value("${jwt.keystore.alias:}")
+    private String keystoreAlias;
+
+    private Key signingKey;
+    private String signingKeyId;
+    private final Map<String, Key> verificationKeys = new LinkedHashMap<>();
+    private final Map<String, RSAPublicKey> publicKeys = new LinkedHashMap<>();
+
+    public JwtKeyManager(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    private void init() throws Exception {
+        if ("rsa".equalsIgnoreCase(mode)) {
+            initRsa();
+        } else {
+            initHmac();
+        }
+        // RSA tokens are verified with the public half of the signing key
+        verificationKeys.put(signingKeyId, publicKeys.containsKey(signingKeyId) ? publicKeys.get(signingKeyId) : signingKey);
+        System.out.println("🔑 JWT signing key '" + signingKeyId + "' (" + mode + "), "
+                + (verificationKeys.size() - 1) + " previous key(s) accepted");
+    }
+
+    private void initHmac() {
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length >= 32) {
+            // Shared secret: tokens survive restarts and other services can verify them locally
+            signingKey = Keys.hmacShaKeyFor(secretBytes);
+            signingKeyId = keyId.isBlank() ? fingerprint(secretBytes) : keyId;
+        } else {
+            System.err.println("⚠️ jwt.secret is unset or shorter than 32 bytes, using a random per-instance key");
+            signingKey = Keys.secretKeyFor(SignatureAlgorithm.HS512); // secure 512-bit key
+            signingKeyId = "ephemeral-" + fingerprint(signingKey.getEncoded());
+        }
+
+        for (String previous : previousSecrets) {
+            int separator = previous.indexOf(':');
+            if (separator <= 0) continue;
+            byte[] previousBytes = previous.substring(separator + 1).trim().getBytes(StandardCharsets.UTF_8);
+            verificationKeys.put(previous.substring(0, separator).trim(), Keys.hmacShaKeyFor(previousBytes));
+        }
+    }
+
+    private void initRsa() throws Exception {
+        if (keystoreLocation.isBlank()) {
+            System.err.println("⚠️ jwt.keystore.location is unset, using a random per-instance RSA key");
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair pair = generator.genKeyPair();
+            signingKey = pair.getPrivate();
+            signingKeyId = "ephemeral-" + fingerprint(pair.getPublic().getEncoded());
+            publicKeys.put(signingKeyId, (RSAPublicKey) pair.getPublic());
+            return;
+        }
+
+        KeyStore keyStore = KeyStore.getInstance(keystoreType);
+        char[] password = keystorePassword.toCharArray();
+        Resource resource = resourceLoader.getResource(keystoreLocation);
+        try (InputStream in = resource.getInputStream()) {
+            keyStore.load(in, password);
+        }
+
+        signingKey = (PrivateKey) keyStore.getKey(keystoreAlias, password);
+        if (signingKey == null) throw new IllegalStateException("No private key under alias '" + keystoreAlias + "'");
+        signingKeyId = keystoreAlias;
+
+        for (String alias : Collections.list(keyStore.aliases())) {
+            Certificate certificate = keyStore.getCertificate(alias);
+            if (certificate == null || !(certificate.getPublicKey() instanceof RSAPublicKey publicKey)) continue;
+            publicKeys.put(alias, publicKey);
+            if (!alias.equals(keystoreAlias)) verificationKeys.put(alias, publicKey);
+        }
+    }
+
+    // =========================
+    // Lookup
+    // =========================
+    public Key signingKey() {
+        return signingKey;
+    }
+
+    public String signingKeyId() {
+        return signingKeyId;
+    }
+
+    /**
+     * Key for a token's {@code kid}; tokens from before key ids existed have none and use the current key.
+     */
+    public Key verificationKey(String kid) {
+        if (kid == null) return verificationKeys.get(signingKeyId);
+        Key key = verificationKeys.get(kid);
+        if (key == null) throw new SignatureException("Unknown signing key id: " + kid);
+        return key;
+    }
+
+    /**
+     * Public keys as a JSON Web Key Set. Empty in HMAC mode, where keys are secret.
+     */
+    public Map<String, Object> jwks() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        publicKeys.forEach((kid, key) -> {
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("use", "sig");
+            jwk.put("kid", kid);
+            jwk.put("n", base64Url(key.getModulus()));
+            jwk.put("e", base64Url(key.getPublicExponent()));
+            keys.add(jwk);
+        });
+        return Map.of("keys", keys);
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // Drop the sign byte BigInteger adds when the top bit is set
+        if (bytes.length > 1 && bytes[0] == 0) bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String fingerprint(byte[] keyMaterial) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(keyMaterial);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.userservice.jwt;
+
+import java.security.Principal;
+
+/**
+ * Authenticated user as described by the token's claims, so authenticating a request
+ * needs no database lookup.
+ */
+public record JwtPrincipal(Long userId, String email, String role) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
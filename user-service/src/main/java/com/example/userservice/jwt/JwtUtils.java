@@ -1,46 +1,82 @@
 package com.example.userservice.jwt;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.security.Key;
 import java.util.Date;
 
 @Component
 public class JwtUtils {
 
-    private final SecretKey jwtSecret;
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
 
-    private final long jwtExpirationMs = 86400000;
+    private final JwtKeyManager keyManager;
 
-    public JwtUtils() {
-        this.jwtSecret = Keys.secretKeyFor(SignatureAlgorithm.HS512); // secure 512-bit key
+    private final long jwtExpirationMs;
+
+    // Picks the verification key from the token's kid header, so rotated-out keys still verify
+    private final JwtParser parser;
+
+    public JwtUtils(JwtKeyManager keyManager,
+                    @Value("${jwt.expirationMs:86400000}") long jwtExpirationMs) {
+        this.keyManager = keyManager;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyManager.verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String email) {
-        return Jwts.builder()
+        return generateToken(email, null, null);
+    }
+
+    /**
+     * Carries the user id and role as claims so downstream services need no user lookup.
+     */
+    public String generateToken(String email, Long userId, String role) {
+        var builder = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyManager.signingKeyId())
                 .setSubject(email)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(jwtSecret)
-                .compact();
+                .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs));
+        if (userId != null) builder.claim(USER_ID_CLAIM, userId);
+        if (role != null) builder.claim(ROLE_CLAIM, role);
+        return builder.signWith(keyManager.signingKey()).compact();
+    }
+
+    /**
+     * Verifies the token once and returns its claims, or null when it is invalid or expired.
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
     public String getEmailFromJwt(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(jwtSecret)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
     public boolean validateJwt(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(jwtSecret).build().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -0,0 +1,15 @@
+package com.example.userservice.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBatchRequestDTO {
+    private List<Long> ids;
+    private List<String> emails;
+}
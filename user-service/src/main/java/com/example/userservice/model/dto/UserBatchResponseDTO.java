@@ -0,0 +1,16 @@
+package com.example.userservice.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBatchResponseDTO {
+    private List<UserSummaryDTO> users;
+    private List<Long> missingIds;
+    private List<String> missingEmails;
+}
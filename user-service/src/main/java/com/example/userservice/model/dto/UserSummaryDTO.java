@@ -0,0 +1,20 @@
+package com.example.userservice.model.dto;
+
+import com.example.userservice.model.enumeration.Role;
+import lombok.*;
+
+/**
+ * Compact view of a user for other services to put names next to their own rows.
+ * Built straight from a JPQL constructor expression, never from a full entity.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSummaryDTO {
+    private Long id;
+    private String email;
+    private String fullName;
+    private Role role;
+}
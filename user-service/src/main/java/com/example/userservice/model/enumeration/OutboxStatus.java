@@ -0,0 +1,7 @@
+package com.example.userservice.model.enumeration;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
@@ -0,0 +1,7 @@
+package com.example.userservice.model.exceptions;
+
+public class LoginCapacityExceededException extends RuntimeException {
+    public LoginCapacityExceededException() {
+        super("Login is temporarily overloaded, try again shortly");
+    }
+}
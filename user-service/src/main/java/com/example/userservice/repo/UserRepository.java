@@ -1,11 +1,24 @@
 package com.example.userservice.repo;
 
 import com.example.userservice.model.User;
+import com.example.userservice.model.dto.UserSummaryDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("select new com.example.userservice.model.dto.UserSummaryDTO(u.id, u.email, u.fullName, u.role) "
+            + "from User u where u.id in :ids")
+    List<UserSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.userservice.model.dto.UserSummaryDTO(u.id, u.email, u.fullName, u.role) "
+            + "from User u where u.email in :emails")
+    List<UserSummaryDTO> findSummariesByEmailIn(@Param("emails") Collection<String> emails);
 }
@@ -2,30 +2,74 @@ package com.example.userservice.service;
 
 import com.example.userservice.model.dto.AddressRequestDTO;
 import com.example.userservice.model.dto.AddressResponseDTO;
+import com.example.userservice.utils.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
+/**
+ * Non-blocking client for address-service.
+ * <p>
+ * Every call is bounded by {@code addressservice.timeout} on top of the connector's connect
+ * and response timeouts. Fetched and created addresses go into a read-through cache by id
+ * ({@code addressservice.cache.ttl}, at most {@code addressservice.cache.max-entries}, least
+ * recently used evicted first).
+ */
 @Service
 @RequiredArgsConstructor
 public class AddressClientService {
 
     private final WebClient addressServiceWebClient;
 
-    public AddressResponseDTO createAddress(AddressRequestDTO dto) {
+    @Value("${addressservice.timeout:PT5S}")
+    private Duration timeout;
+
+    @Value("${addressservice.cache.ttl:PT10M}")
+    private Duration cacheTtl;
+
+    @Value("${addressservice.cache.max-entries:10000}")
+    private int maxEntries;
+
+    private BoundedTtlCache<Long, AddressResponseDTO> cache;
+
+    @PostConstruct
+    private void init() {
+        cache = new BoundedTtlCache<>(maxEntries, cacheTtl);
+    }
+
+    public Mono<AddressResponseDTO> createAddress(AddressRequestDTO dto) {
         return addressServiceWebClient.post()
                 .uri("")
                 .bodyValue(dto)
                 .retrieve()
                 .bodyToMono(AddressResponseDTO.class)
-                .block();
+                .timeout(timeout)
+                .doOnNext(this::remember);
     }
 
-    public AddressResponseDTO getAddress(Long id) {
+    /**
+     * Empty when address-service does not know the id.
+     */
+    public Mono<AddressResponseDTO> getAddress(Long id) {
+        AddressResponseDTO cached = cache.get(id);
+        if (cached != null) return Mono.just(cached);
+
         return addressServiceWebClient.get()
                 .uri("/{id}", id)
                 .retrieve()
                 .bodyToMono(AddressResponseDTO.class)
-                .block();
+                .timeout(timeout)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .doOnNext(this::remember);
+    }
+
+    private void remember(AddressResponseDTO address) {
+        if (address.getId() != null) cache.put(address.getId(), address);
     }
-}
\ No newline at end of file
+}
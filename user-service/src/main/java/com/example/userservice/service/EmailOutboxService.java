@@ -0,0 +1,178 @@
+package com.example.userservice.service;
+
+import com.example.userservice.config.EmailService;
+import com.example.userservice.model.EmailOutbox;
+import com.example.userservice.model.enumeration.OutboxStatus;
+import com.example.userservice.repo.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for outgoing email.
+ * <p>
+ * {@link #enqueue} only inserts a row, so it commits or rolls back together with the
+ * caller's transaction and never waits on SMTP. {@link #dispatch} runs every
+ * {@code email.outbox.poll-interval}, claims up to {@code email.outbox.batch-size} due rows
+ * (SKIP LOCKED, so instances never share a row) and sends them over a single SMTP
+ * connection. Failed messages are retried with exponential backoff starting at
+ * {@code email.outbox.retry-backoff}; after {@code email.outbox.max-attempts} they are
+ * marked {@link OutboxStatus#DEAD} and left in the table for inspection.
+ * <p>
+ * Delivery is at least once: a claim only pushes the row's next attempt out by
+ * {@code email.outbox.claim-lease}, so a crash between sending and recording the result
+ * resends the message later.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retry-backoff:PT30S}")
+    private Duration retryBackoff;
+
+    @Value("${email.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${email.outbox.claim-lease:PT5M}")
+    private Duration claimLease;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter sent;
+    private Counter retried;
+    private Counter dead;
+
+    @PostConstruct
+    private void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        sent = Counter.builder("email.outbox.sent").register(meterRegistry);
+        retried = Counter.builder("email.outbox.retried").register(meterRegistry);
+        dead = Counter.builder("email.outbox.dead")
+                .description("Emails given up after exhausting their attempts")
+                .register(meterRegistry);
+    }
+
+    // =========================
+    // Producers
+    // =========================
+    public void enqueue(String to, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .status(OutboxStatus.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    // =========================
+    // Dispatcher
+    // =========================
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:PT2S}")
+    public void dispatch() {
+        List<EmailOutbox> batch = claimBatch();
+        if (batch.isEmpty()) return;
+
+        Map<MimeMessage, EmailOutbox> messages = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                messages.put(emailService.createMessage(email.getRecipient(), email.getSubject(), email.getBody()), email);
+            } catch (Exception e) {
+                // Malformed address or content, retrying will not help
+                markDead(email, e);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            Map<Object, Exception> failed = Map.of();
+            Exception batchFailure = null;
+            try {
+                emailService.sendAll(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failed = e.getFailedMessages();
+                if (failed.isEmpty()) batchFailure = e;
+            } catch (MailException e) {
+                batchFailure = e;
+            }
+
+            for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+                Exception error = batchFailure != null ? batchFailure : failed.get(entry.getKey());
+                if (error == null) {
+                    markSent(entry.getValue());
+                } else {
+                    markFailed(entry.getValue(), error);
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(batch));
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> due = emailOutboxRepository.findDue(OutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+            due.forEach(email -> email.setNextAttemptAt(now.plus(claimLease)));
+            return due;
+        });
+    }
+
+    private void markSent(EmailOutbox email) {
+        email.setStatus(OutboxStatus.SENT);
+        email.setSentAt(LocalDateTime.now());
+        email.setLastError(null);
+        sent.increment();
+    }
+
+    private void markFailed(EmailOutbox email, Exception error) {
+        email.setAttempts(email.getAttempts() + 1);
+        if (email.getAttempts() >= maxAttempts) {
+            markDead(email, error);
+            return;
+        }
+        long backoffMillis = retryBackoff.toMillis() << Math.min(email.getAttempts() - 1, 20);
+        email.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(Math.min(backoffMillis, maxBackoff.toMillis()))));
+        email.setLastError(truncate(error.getMessage()));
+        retried.increment();
+    }
+
+    private void markDead(EmailOutbox email, Exception error) {
+        email.setStatus(OutboxStatus.DEAD);
+        email.setLastError(truncate(error.getMessage()));
+        dead.increment();
+        System.err.println("⚠️ Giving up on email " + email.getId() + " to " + email.getRecipient() + ": " + error.getMessage());
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
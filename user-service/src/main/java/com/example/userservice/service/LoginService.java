@@ -0,0 +1,179 @@
+package com.example.userservice.service;
+
+import com.example.userservice.model.User;
+import com.example.userservice.model.exceptions.LoginCapacityExceededException;
+import com.example.userservice.model.exceptions.TooManyLoginAttemptsException;
+import com.example.userservice.model.exceptions.UserNotFoundException;
+import com.example.userservice.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Email/password login with a single user lookup.
+ * <p>
+ * BCrypt runs on a dedicated pool ({@code login.hash.threads}, queue of
+ * {@code login.hash.queue-capacity}) so a login burst cannot take every request thread.
+ * A hash that waited longer than {@code login.hash.max-queue-time} is not started at all;
+ * the caller gets a {@link LoginCapacityExceededException} (503) instead of a response
+ * nobody is waiting for anymore. Hashes stored with a lower cost than
+ * {@code security.password.bcrypt-strength} are re-encoded after a successful match.
+ * <p>
+ * Publishes {@code auth.login} (by outcome), {@code auth.password.hash.queue},
+ * {@code auth.password.hash.cpu} and the pool's active/queued gauges.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoginService {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final LoginThrottle loginThrottle;
+    private final MeterRegistry meterRegistry;
+
+    // 0 means one thread per core, BCrypt is pure CPU
+    @Value("${login.hash.threads:0}")
+    private int hashThreads;
+
+    @Value("${login.hash.queue-capacity:64}")
+    private int hashQueueCapacity;
+
+    @Value("${login.hash.max-queue-time:PT2S}")
+    private Duration maxQueueTime;
+
+    private ThreadPoolTaskExecutor hashExecutor;
+    private Timer queueWait;
+    private Timer hashCpu;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    @PostConstruct
+    private void init() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        hashExecutor = new ThreadPoolTaskExecutor();
+        hashExecutor.setCorePoolSize(threads);
+        hashExecutor.setMaxPoolSize(threads);
+        hashExecutor.setQueueCapacity(hashQueueCapacity);
+        hashExecutor.setThreadNamePrefix("bcrypt-");
+        hashExecutor.initialize();
+
+        queueWait = Timer.builder("auth.password.hash.queue")
+                .description("Time a password check waited for a hashing thread")
+                .register(meterRegistry);
+        hashCpu = Timer.builder("auth.password.hash.cpu")
+                .description("CPU time spent per password check")
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.password.hash.active", hashExecutor, ThreadPoolTaskExecutor::getActiveCount);
+        meterRegistry.gauge("auth.password.hash.queued", hashExecutor,
+                executor -> executor.getThreadPoolExecutor().getQueue().size());
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        hashExecutor.shutdown();
+    }
+
+    // =========================
+    // Login
+    // =========================
+    public User authenticate(String email, String rawPassword, String clientIp) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            loginThrottle.checkAttempt(email, clientIp);
+
+            User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UserNotFoundException(email));
+            if (!user.isEmailVerified()) {
+                throw new DisabledException("Please verify your email before logging in.");
+            }
+            if (user.getPassword() == null) {
+                // OAuth-only account, there is no password to match
+                throw new BadCredentialsException("Invalid email or password");
+            }
+
+            String rehashed = checkPassword(rawPassword, user.getPassword());
+            if (rehashed != null) {
+                user.setPassword(rehashed);
+                userRepository.save(user);
+            }
+            outcome = "success";
+            return user;
+        } catch (RuntimeException e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            Timer.builder("auth.login")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns a fresh hash when the stored one should be upgraded, otherwise null.
+     */
+    private String checkPassword(String rawPassword, String encodedPassword) {
+        long submitted = System.nanoTime();
+        Future<String> result;
+        try {
+            result = hashExecutor.submit(() -> {
+                long waited = System.nanoTime() - submitted;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueTime.toNanos()) throw new LoginCapacityExceededException();
+
+                long cpuStart = THREADS.getCurrentThreadCpuTime();
+                try {
+                    if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+                        throw new BadCredentialsException("Invalid email or password");
+                    }
+                    return passwordEncoder.upgradeEncoding(encodedPassword) ? passwordEncoder.encode(rawPassword) : null;
+                } finally {
+                    hashCpu.record(THREADS.getCurrentThreadCpuTime() - cpuStart, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new LoginCapacityExceededException();
+        }
+
+        try {
+            // Queue limit plus generous room for the hash itself
+            return result.get(maxQueueTime.toMillis() + 5_000, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new LoginCapacityExceededException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoginCapacityExceededException();
+        }
+    }
+
+    private static String outcomeOf(RuntimeException e) {
+        if (e instanceof BadCredentialsException) return "bad_credentials";
+        if (e instanceof UserNotFoundException) return "unknown_user";
+        if (e instanceof DisabledException) return "unverified";
+        if (e instanceof LoginCapacityExceededException) return "overloaded";
+        if (e instanceof TooManyLoginAttemptsException) return "throttled";
+        return "error";
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.userservice.service;
+
+import com.example.userservice.model.exceptions.TooManyLoginAttemptsException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Token buckets per account and per client IP. Every login attempt takes one token from
+ * both, successful or not, so credential stuffing against one account or from one address
+ * is slowed down without affecting anyone else.
+ * <p>
+ * Each map keeps at most {@code login.throttle.max-tracked-keys} buckets and evicts the least
+ * recently used one on insert, in constant time. Spraying unique emails therefore cannot grow
+ * memory or cost a scan per request. It can only push out accounts nobody tried recently,
+ * and the per-IP bucket limits how fast a single client can spray.
+ */
+@Component
+public class LoginThrottle {
+
+    @Value("${login.throttle.account.capacity:10}")
+    private int accountCapacity;
+
+    @Value("${login.throttle.account.refill-per-minute:5}")
+    private int accountRefillPerMinute;
+
+    @Value("${login.throttle.ip.capacity:50}")
+    private int ipCapacity;
+
+    @Value("${login.throttle.ip.refill-per-minute:30}")
+    private int ipRefillPerMinute;
+
+    @Value("${login.throttle.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    private Map<String, Bucket> accounts;
+    private Map<String, Bucket> addresses;
+
+    @PostConstruct
+    private void init() {
+        accounts = lruBuckets();
+        addresses = lruBuckets();
+    }
+
+    private Map<String, Bucket> lruBuckets() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > maxTrackedKeys;
+            }
+        };
+    }
+
+    public void checkAttempt(String email, String clientIp) {
+        take(addresses, clientIp, ipCapacity, ipRefillPerMinute);
+        take(accounts, email.toLowerCase(Locale.ROOT), accountCapacity, accountRefillPerMinute);
+    }
+
+    private void take(Map<String, Bucket> buckets, String key, int capacity, int refillPerMinute) {
+        Bucket bucket;
+        synchronized (buckets) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, refillPerMinute));
+        }
+        Duration retryAfter = bucket.tryTake();
+        if (retryAfter != null) throw new TooManyLoginAttemptsException(retryAfter);
+    }
+
+    private static class Bucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double available;
+        private long lastRefill = System.nanoTime();
+
+        private Bucket(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+            this.available = capacity;
+        }
+
+        /**
+         * Null when a token was taken, otherwise how long until the next one.
+         */
+        private synchronized Duration tryTake() {
+            refill();
+            if (available >= 1) {
+                available -= 1;
+                return null;
+            }
+            return Duration.ofNanos((long) Math.ceil((1 - available) / refillPerNano));
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            available = Math.min(capacity, available + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.userservice.service;
+
+import com.example.userservice.model.dto.UserBatchRequestDTO;
+import com.example.userservice.model.dto.UserBatchResponseDTO;
+import com.example.userservice.model.dto.UserSummaryDTO;
+import com.example.userservice.repo.UserRepository;
+import com.example.userservice.utils.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves many users at once for cross-service enrichment.
+ * <p>
+ * Up to {@code users.batch.max-size} ids and emails per call. Keys already in the cache
+ * ({@code users.batch.cache.ttl}, at most {@code users.batch.cache.max-entries} per key type,
+ * least recently used evicted first) are answered locally; the rest are loaded with one {@code IN} query per key type that
+ * selects only the {@link UserSummaryDTO} columns.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserLookupService {
+
+    private final UserRepository userRepository;
+
+    @Value("${users.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${users.batch.cache.ttl:PT5M}")
+    private Duration cacheTtl;
+
+    @Value("${users.batch.cache.max-entries:50000}")
+    private int maxEntries;
+
+    private BoundedTtlCache<Long, UserSummaryDTO> byId;
+    private BoundedTtlCache<String, UserSummaryDTO> byEmail;
+
+    @PostConstruct
+    private void init() {
+        byId = new BoundedTtlCache<>(maxEntries, cacheTtl);
+        byEmail = new BoundedTtlCache<>(maxEntries, cacheTtl);
+    }
+
+    public UserBatchResponseDTO lookup(UserBatchRequestDTO request) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (request.getIds() != null) request.getIds().stream().filter(id -> id != null).forEach(ids::add);
+        Set<String> emails = new LinkedHashSet<>();
+        if (request.getEmails() != null) request.getEmails().stream().filter(email -> email != null && !email.isBlank()).forEach(emails::add);
+
+        if (ids.isEmpty() && emails.isEmpty()) {
+            throw new IllegalArgumentException("Provide at least one id or email");
+        }
+        if (ids.size() + emails.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " ids and emails per request");
+        }
+
+        Map<Long, UserSummaryDTO> found = new LinkedHashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        List<String> missingEmails = new ArrayList<>();
+
+        List<Long> uncachedIds = new ArrayList<>();
+        for (Long id : ids) {
+            UserSummaryDTO cached = byId.get(id);
+            if (cached != null) {
+                found.put(cached.getId(), cached);
+            } else {
+                uncachedIds.add(id);
+            }
+        }
+        List<String> uncachedEmails = new ArrayList<>();
+        for (String email : emails) {
+            UserSummaryDTO cached = byEmail.get(email);
+            if (cached != null) {
+                found.put(cached.getId(), cached);
+            } else {
+                uncachedEmails.add(email);
+            }
+        }
+
+        if (!uncachedIds.isEmpty()) {
+            Map<Long, UserSummaryDTO> loaded = new LinkedHashMap<>();
+            userRepository.findSummariesByIdIn(uncachedIds).forEach(user -> loaded.put(user.getId(), user));
+            for (Long id : uncachedIds) {
+                UserSummaryDTO user = loaded.get(id);
+                if (user == null) {
+                    missingIds.add(id);
+                    continue;
+                }
+                found.put(id, user);
+                remember(user);
+            }
+        }
+        if (!uncachedEmails.isEmpty()) {
+            Map<String, UserSummaryDTO> loaded = new LinkedHashMap<>();
+            userRepository.findSummariesByEmailIn(uncachedEmails).forEach(user -> loaded.put(user.getEmail(), user));
+            for (String email : uncachedEmails) {
+                UserSummaryDTO user = loaded.get(email);
+                if (user == null) {
+                    missingEmails.add(email);
+                    continue;
+                }
+                found.put(user.getId(), user);
+                remember(user);
+            }
+        }
+
+        return UserBatchResponseDTO.builder()
+                .users(new ArrayList<>(found.values()))
+                .missingIds(missingIds)
+                .missingEmails(missingEmails)
+                .build();
+    }
+
+    private void remember(UserSummaryDTO user) {
+        byId.put(user.getId(), user);
+        byEmail.put(user.getEmail(), user);
+    }
+}
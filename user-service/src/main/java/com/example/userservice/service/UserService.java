@@ -10,10 +10,13 @@ import com.example.userservice.model.exceptions.UserAlreadyExistsException;
 import com.example.userservice.model.exceptions.UserNotFoundException;
 import com.example.userservice.model.mapper.UserMapper;
 import com.example.userservice.repo.UserRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Random;
@@ -26,20 +29,50 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
-    private final EmailService emailService; // Inject your email service
+    private final EmailOutboxService emailOutboxService;
     private final AddressClientService addressClientService;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    private void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     // -----------------------------
     // NORMAL REGISTRATION WITH EMAIL CODE
     // -----------------------------
+    /**
+     * The user and its verification email commit together; the optional address is created
+     * afterwards, so no connection or transaction is held across the address-service call and
+     * a rolled-back registration cannot leave an orphaned address behind.
+     */
     public UserResponseDTO register(UserRegisterDTO dto) {
+        UserResponseDTO user = transactionTemplate.execute(status -> createUser(dto));
+
+        // If optional address is provided, create it via AddressService and link it
+        if (dto.getAddress() != null) {
+            try {
+                // The client bounds the wait
+                AddressResponseDTO createdAddress = addressClientService.createAddress(dto.getAddress()).block();
+                user = updateAddress(user.getId(), createdAddress.getId());
+            } catch (Exception e) {
+                // Log the error but don’t fail registration; the address can be added later
+                System.err.println("Failed to create address: " + e.getMessage());
+            }
+        }
+        return user;
+    }
+
+    private UserResponseDTO createUser(UserRegisterDTO dto) {
         // 1️⃣ Check if email already exists
         if (userRepository.existsByEmail(dto.getEmail())) {
             throw new UserAlreadyExistsException(dto.getEmail());
         }
 
-        // 2️⃣ Build the user entity (without addressId for now)
-        User.UserBuilder userBuilder = User.builder()
+        // 2️⃣ Build and save the user entity (without addressId for now)
+        User user = userRepository.save(User.builder()
                 .email(dto.getEmail())
                 .fullName(dto.getFullName())
                 .password(passwordEncoder.encode(dto.getPassword()))
@@ -47,27 +80,14 @@ public class UserService {
                 .isOauth2User(false)
                 .role(Role.USER)
                 .emailVerified(false)
-                .verificationCode(generateVerificationCode());
-
-        // 3️⃣ If optional address is provided, create it via AddressService
-        if (dto.getAddress() != null) {
-            try {
-                AddressResponseDTO createdAddress = addressClientService.createAddress(dto.getAddress());
-                userBuilder.addressId(createdAddress.getId()); // link address
-            } catch (Exception e) {
-                // Log the error but don’t fail registration
-                System.err.println("Failed to create address: " + e.getMessage());
-            }
-        }
-
-        // 4️⃣ Save the user
-        User user = userRepository.save(userBuilder.build());
+                .verificationCode(generateVerificationCode())
+                .build());
 
-        // 5️⃣ Send verification email
-        emailService.sendEmail(user.getEmail(),
+        // 3️⃣ Queue verification email, committed with the user and sent in the background
+        emailOutboxService.enqueue(user.getEmail(), EmailService.VERIFICATION_SUBJECT,
                 "Your verification code is: " + user.getVerificationCode());
 
-        // 6️⃣ Return DTO
+        // 4️⃣ Return DTO
         return userMapper.toDTO(user);
     }
 
@@ -1,16 +1,24 @@
 package com.example.userservice.web;
 
 import com.example.userservice.jwt.JwtUtils;
+import com.example.userservice.model.User;
 import com.example.userservice.model.dto.*;
+import com.example.userservice.model.exceptions.LoginCapacityExceededException;
+import com.example.userservice.model.exceptions.TooManyLoginAttemptsException;
 import com.example.userservice.model.exceptions.UserNotFoundException;
 import com.example.userservice.service.AddressClientService;
+import com.example.userservice.service.LoginService;
+import com.example.userservice.service.UserLookupService;
 import com.example.userservice.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import jakarta.validation.Valid;
 
@@ -24,8 +32,9 @@ public class AuthController {
 
     private final UserService userService;
     private final JwtUtils jwtUtils;
-    private final AuthenticationManager authenticationManager;
+    private final LoginService loginService;
     private final AddressClientService addressClientService;
+    private final UserLookupService userLookupService;
 
     // -----------------------------
     // REGISTER
@@ -39,26 +48,15 @@ public class AuthController {
     // LOGIN WITH EMAIL VERIFICATION CHECK
     // -----------------------------
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody UserLoginDTO dto) {
+    public ResponseEntity<?> login(@Valid @RequestBody UserLoginDTO dto, HttpServletRequest request) {
         try {
-            // 1️⃣ Fetch user info first
-            UserResponseDTO user = userService.getByEmail(dto.getEmail());
+            // 1️⃣ Throttle, load the user once, check verification and password (remote address honours X-Forwarded-For from trusted proxies)
+            User user = loginService.authenticate(dto.getEmail(), dto.getPassword(), request.getRemoteAddr());
 
-            // 2️⃣ Check if email is verified
-            if (!user.isEmailVerified()) {
-                return ResponseEntity.status(403)
-                        .body(Map.of("error", "Please verify your email before logging in."));
-            }
+            // 2️⃣ Generate JWT token
+            String token = jwtUtils.generateToken(user.getEmail(), user.getId(), user.getRole().name());
 
-            // 3️⃣ Authenticate password
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(dto.getEmail(), dto.getPassword())
-            );
-
-            // 4️⃣ Generate JWT token
-            String token = jwtUtils.generateToken(dto.getEmail());
-
-            // 5️⃣ Return token + user info
+            // 3️⃣ Return token + user info
             return ResponseEntity.ok(Map.of(
                     "token", token,
                     "userId", user.getId(),
@@ -67,8 +65,18 @@ public class AuthController {
 
         } catch (UserNotFoundException ex) {
             return ResponseEntity.status(404).body(Map.of("error", "User not found"));
+        } catch (DisabledException ex) {
+            return ResponseEntity.status(403).body(Map.of("error", ex.getMessage()));
         } catch (AuthenticationException ex) {
             return ResponseEntity.status(401).body(Map.of("error", "Invalid email or password"));
+        } catch (TooManyLoginAttemptsException ex) {
+            return ResponseEntity.status(429)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                    .body(Map.of("error", ex.getMessage()));
+        } catch (LoginCapacityExceededException ex) {
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", ex.getMessage()));
         }
     }
 
@@ -98,31 +106,41 @@ public class AuthController {
         }
     }
 
+    // -----------------------------
+    // BATCH LOOKUP FOR OTHER SERVICES
+    // -----------------------------
+    @PostMapping("/batch")
+    public ResponseEntity<?> lookupUsers(@RequestBody UserBatchRequestDTO dto) {
+        try {
+            return ResponseEntity.ok(userLookupService.lookup(dto));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(400).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
     @PostMapping("/{id}/address")
-    public ResponseEntity<UserResponseDTO> addAddress(@PathVariable Long id,
-                                                      @RequestBody AddressRequestDTO dto) {
+    public Mono<ResponseEntity<UserResponseDTO>> addAddress(@PathVariable Long id,
+                                                            @RequestBody AddressRequestDTO dto) {
 
         // 1️⃣ Create address in AddressService
-        AddressResponseDTO address = addressClientService.createAddress(dto);
-
-        // 2️⃣ Update user with addressId
-        UserResponseDTO user = userService.updateAddress(id, address.getId());
-
-        return ResponseEntity.ok(user);
+        return addressClientService.createAddress(dto)
+                // 2️⃣ Update user with addressId; JPA blocks, so it runs off the event loop
+                .publishOn(Schedulers.boundedElastic())
+                .map(address -> ResponseEntity.ok(userService.updateAddress(id, address.getId())));
     }
 
     @GetMapping("/{id}/with-address")
-    public ResponseEntity<Map<String, Object>> getUserWithAddress(@PathVariable Long id) {
-        UserResponseDTO user = userService.getById(id);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("user", user);
-
-        if (user.getAddressId() != null) {
-            AddressResponseDTO address = addressClientService.getAddress(user.getAddressId());
-            response.put("address", address);
-        }
-
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<Map<String, Object>>> getUserWithAddress(@PathVariable Long id) {
+        return Mono.fromCallable(() -> userService.getById(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(user -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("user", user);
+
+                    if (user.getAddressId() == null) return Mono.just(ResponseEntity.ok(response));
+                    return addressClientService.getAddress(user.getAddressId())
+                            .doOnNext(address -> response.put("address", address))
+                            .then(Mono.fromSupplier(() -> ResponseEntity.ok(response)));
+                });
     }
 }
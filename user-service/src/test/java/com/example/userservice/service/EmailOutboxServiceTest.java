@@ -0,0 +1,153 @@
+package com.example.userservice.service;
+
+import com.example.userservice.config.EmailService;
+import com.example.userservice.model.EmailOutbox;
+import com.example.userservice.model.enumeration.OutboxStatus;
+import com.example.userservice.repo.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the dispatcher against an in-process GreenMail SMTP server, with the outbox table
+ * replaced by an in-memory list behind a mocked repository.
+ */
+class EmailOutboxServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final List<EmailOutbox> rows = new ArrayList<>();
+    private EmailOutboxRepository repository;
+    private JavaMailSenderImpl mailSender;
+    private EmailOutboxService outbox;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EmailOutboxRepository.class);
+        when(repository.save(any(EmailOutbox.class))).thenAnswer(invocation -> {
+            EmailOutbox email = invocation.getArgument(0);
+            email.setId((long) rows.size() + 1);
+            rows.add(email);
+            return email;
+        });
+        when(repository.findDue(eq(OutboxStatus.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    LocalDateTime now = invocation.getArgument(1);
+                    Pageable page = invocation.getArgument(2);
+                    return rows.stream()
+                            .filter(email -> email.getStatus() == OutboxStatus.PENDING)
+                            .filter(email -> !email.getNextAttemptAt().isAfter(now))
+                            .limit(page.getPageSize())
+                            .toList();
+                });
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        outbox = new EmailOutboxService(repository, new EmailService(mailSender),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(outbox, "batchSize", 2);
+        ReflectionTestUtils.setField(outbox, "maxAttempts", 3);
+        ReflectionTestUtils.setField(outbox, "retryBackoff", Duration.ZERO);
+        ReflectionTestUtils.setField(outbox, "maxBackoff", Duration.ofHours(1));
+        ReflectionTestUtils.setField(outbox, "claimLease", Duration.ofMinutes(5));
+        ReflectionTestUtils.invokeMethod(outbox, "init");
+    }
+
+    @Test
+    void sendsQueuedEmailsInBatches() throws Exception {
+        outbox.enqueue("a@example.com", EmailService.VERIFICATION_SUBJECT, "Your verification code is: 111111");
+        outbox.enqueue("b@example.com", EmailService.VERIFICATION_SUBJECT, "Your verification code is: 222222");
+        outbox.enqueue("c@example.com", EmailService.VERIFICATION_SUBJECT, "Your verification code is: 333333");
+
+        outbox.dispatch();
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(rows).extracting(EmailOutbox::getStatus)
+                .containsExactly(OutboxStatus.SENT, OutboxStatus.SENT, OutboxStatus.PENDING);
+
+        outbox.dispatch();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(3);
+        assertThat(received[2].getSubject()).isEqualTo(EmailService.VERIFICATION_SUBJECT);
+        assertThat(rows).allSatisfy(email -> {
+            assertThat(email.getStatus()).isEqualTo(OutboxStatus.SENT);
+            assertThat(email.getSentAt()).isNotNull();
+            assertThat(email.getAttempts()).isZero();
+        });
+        verify(repository, atLeastOnce()).saveAll(anyList());
+    }
+
+    @Test
+    void retriesAndDeadLettersWhileTheServerIsDown() throws Exception {
+        mailSender.setPort(unusedPort());
+
+        // Queuing never touches SMTP, so it succeeds with the server unreachable
+        outbox.enqueue("a@example.com", EmailService.VERIFICATION_SUBJECT, "Your verification code is: 111111");
+        EmailOutbox email = rows.get(0);
+
+        outbox.dispatch();
+        assertThat(email.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getLastError()).isNotBlank();
+
+        outbox.dispatch();
+        assertThat(email.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(email.getAttempts()).isEqualTo(2);
+
+        outbox.dispatch();
+        assertThat(email.getStatus()).isEqualTo(OutboxStatus.DEAD);
+        assertThat(email.getAttempts()).isEqualTo(3);
+
+        // Dead rows are never claimed again
+        outbox.dispatch();
+        assertThat(email.getAttempts()).isEqualTo(3);
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void recoversOnceTheServerIsBack() throws Exception {
+        int realPort = mailSender.getPort();
+        mailSender.setPort(unusedPort());
+
+        outbox.enqueue("a@example.com", EmailService.VERIFICATION_SUBJECT, "Your verification code is: 111111");
+        outbox.dispatch();
+        assertThat(rows.get(0).getAttempts()).isEqualTo(1);
+
+        mailSender.setPort(realPort);
+        outbox.dispatch();
+        assertThat(rows.get(0).getStatus()).isEqualTo(OutboxStatus.SENT);
+        assertThat(rows.get(0).getLastError()).isNull();
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    private static int unusedPort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.userservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a"); // b is now the least recently used
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    void neverGrowsPastTheLimit() {
+        BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>(100, Duration.ofMinutes(1));
+        for (int i = 0; i < 10_000; i++) cache.put(i, i);
+
+        assertEquals(100, cache.size());
+        // The most recent entries survive rather than the cache starting over
+        assertEquals(9_999, cache.get(9_999));
+        assertEquals(9_900, cache.get(9_900));
+        assertNull(cache.get(9_899));
+    }
+
+    @Test
+    void expiredEntriesAreNotReturned() throws InterruptedException {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        cache.put("short", 1, Duration.ofMillis(20));
+        cache.put("none", 2, Duration.ZERO);
+        cache.put("long", 3);
+        Thread.sleep(50);
+
+        assertNull(cache.get("short"));
+        assertNull(cache.get("none"));
+        assertEquals(3, cache.get("long"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void removeDropsTheEntry() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", 1);
+        cache.remove("a");
+
+        assertNull(cache.get("a"));
+    }
+}
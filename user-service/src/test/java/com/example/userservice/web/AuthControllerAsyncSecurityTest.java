@@ -0,0 +1,124 @@
+package com.example.userservice.web;
+
+import com.example.userservice.config.CustomOAuth2UserService;
+import com.example.userservice.config.OAuth2LoginSuccessHandler;
+import com.example.userservice.config.SecurityConfig;
+import com.example.userservice.jwt.CustomUserDetailsService;
+import com.example.userservice.jwt.JwtAuthenticationFilter;
+import com.example.userservice.jwt.JwtUtils;
+import com.example.userservice.model.dto.AddressResponseDTO;
+import com.example.userservice.model.dto.UserResponseDTO;
+import com.example.userservice.service.AddressClientService;
+import com.example.userservice.service.LoginService;
+import com.example.userservice.service.UserLookupService;
+import com.example.userservice.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The address endpoints return {@code Mono}, so their response is written on an ASYNC
+ * re-dispatch, which has to stay authenticated under the stateless JWT chain.
+ */
+@WebMvcTest(controllers = AuthController.class, properties = {
+        "spring.security.oauth2.client.registration.google.client-id=test",
+        "spring.security.oauth2.client.registration.google.client-secret=test",
+        "spring.security.oauth2.client.registration.twitter.client-id=test",
+        "spring.security.oauth2.client.registration.twitter.client-secret=test"
+})
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+class AuthControllerAsyncSecurityTest {
+
+    private static final String TOKEN = "test-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+    @MockitoBean
+    private CustomOAuth2UserService customOAuth2UserService;
+    @MockitoBean
+    private OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
+    @MockitoBean
+    private UserService userService;
+    @MockitoBean
+    private LoginService loginService;
+    @MockitoBean
+    private AddressClientService addressClientService;
+    @MockitoBean
+    private UserLookupService userLookupService;
+
+    private void validToken() {
+        Claims claims = Jwts.claims(Map.of(JwtUtils.USER_ID_CLAIM, 7L, JwtUtils.ROLE_CLAIM, "USER"));
+        claims.setSubject("user@example.com");
+        when(jwtUtils.parseClaims(TOKEN)).thenReturn(claims);
+    }
+
+    @Test
+    void addAddressStaysAuthenticatedOnAsyncDispatch() throws Exception {
+        validToken();
+        when(addressClientService.createAddress(any()))
+                .thenReturn(Mono.just(AddressResponseDTO.builder().id(42L).build()));
+        when(userService.updateAddress(7L, 42L))
+                .thenReturn(UserResponseDTO.builder().id(7L).addressId(42L).build());
+
+        MvcResult result = mockMvc.perform(post("/api/users/7/address")
+                        .header("Authorization", "Bearer " + TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"city\":\"Skopje\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.addressId").value(42));
+    }
+
+    @Test
+    void getUserWithAddressStaysAuthenticatedOnAsyncDispatch() throws Exception {
+        validToken();
+        when(userService.getById(7L)).thenReturn(UserResponseDTO.builder().id(7L).build());
+
+        MvcResult result = mockMvc.perform(get("/api/users/7/with-address")
+                        .header("Authorization", "Bearer " + TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.id").value(7));
+    }
+
+    @Test
+    void addAddressWithoutTokenIsRejectedBeforeAnyWork() throws Exception {
+        when(jwtUtils.parseClaims(anyString())).thenReturn(null);
+
+        mockMvc.perform(post("/api/users/7/address")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"city\":\"Skopje\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+}